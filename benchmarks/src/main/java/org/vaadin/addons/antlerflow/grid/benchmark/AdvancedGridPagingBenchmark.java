@@ -0,0 +1,105 @@
+package org.vaadin.addons.antlerflow.grid.benchmark;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.data.provider.DataCommunicator;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.addons.antlerflow.grid.AdvancedGrid;
+import org.vaadin.addons.antlerflow.grid.benchmark.BenchmarkData.Row;
+import org.vaadin.addons.antlerflow.grid.pagination.Paginator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A page turn in paginated mode, as triggered by the paginator's page-change event, with an
+ * in-memory and a callback (backend) data provider. The grid has no UI, so its data communicator
+ * never flushes; the benchmark fetches the page through the grid's provider as the flush would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdvancedGridPagingBenchmark {
+
+    @Param({"inMemory", "backend"})
+    private String provider;
+
+    @Param({"100000"})
+    private int rowCount;
+
+    @Param({"50"})
+    private int pageSize;
+
+    private AdvancedGrid<Row> grid;
+    private int pages;
+    private int page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Row> rows = BenchmarkData.rows(rowCount);
+        DataProvider<Row, ?> dataProvider =
+                "inMemory".equals(provider)
+                        ? new ListDataProvider<>(rows)
+                        : DataProvider.fromCallbacks(
+                                query ->
+                                        rows.subList(
+                                                query.getOffset(),
+                                                Math.min(
+                                                        rows.size(),
+                                                        query.getOffset() + query.getLimit()))
+                                                .stream(),
+                                query -> rows.size());
+        grid = new AdvancedGrid<>(BenchmarkData.grid());
+        grid.setPaginationVisibility(true);
+        grid.setPageSize(pageSize);
+        grid.setDataProvider(dataProvider);
+        pages = rowCount / pageSize;
+    }
+
+    @Benchmark
+    public long turnPage() {
+        page = page % pages + 1;
+        Paginator paginator = grid.getPaginator();
+        paginator.getElement().setProperty("page", page);
+        int offset = (page - 1) * pageSize;
+        ComponentUtil.fireEvent(
+                paginator,
+                new Paginator.PageChangeEvent(
+                        paginator, true, page, pageSize, pages, offset, pageSize));
+        return fetchVisibleRows();
+    }
+
+    @SuppressWarnings("unchecked")
+    private long fetchVisibleRows() {
+        DataCommunicator<Row> communicator = grid.getInnerGrid().getDataCommunicator();
+        DataProvider<Row, Object> visible =
+                (DataProvider<Row, Object>) communicator.getDataProvider();
+        Query<Row, Object> query =
+                new Query<>(
+                        0,
+                        pageSize,
+                        communicator.getBackEndSorting(),
+                        communicator.getInMemorySorting(),
+                        null);
+        try (Stream<Row> rows = visible.fetch(query)) {
+            return rows.count();
+        }
+    }
+}
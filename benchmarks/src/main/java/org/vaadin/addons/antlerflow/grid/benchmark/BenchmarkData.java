@@ -0,0 +1,80 @@
+package org.vaadin.addons.antlerflow.grid.benchmark;
+
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.function.ValueProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/** Deterministic rows and an in-memory "backend" shared by the benchmarks. */
+final class BenchmarkData {
+
+    record Row(long id, String name, int age, BigDecimal balance, LocalDate joined) {}
+
+    private BenchmarkData() {}
+
+    static List<Row> rows(int count) {
+        List<Row> rows = new ArrayList<>(count);
+        LocalDate epoch = LocalDate.of(2000, 1, 1);
+        for (int i = 0; i < count; i++) {
+            rows.add(
+                    new Row(
+                            i,
+                            "Person \"" + i + "\", no. " + (i % 97),
+                            18 + i % 60,
+                            BigDecimal.valueOf(i * 37L % 100_000, 2),
+                            epoch.plusDays(i % 9_000)));
+        }
+        return rows;
+    }
+
+    /** Pages through the rows like a repository would, filtering by a name fragment. */
+    static Page<Row> page(List<Row> rows, Optional<String> filter, Pageable pageable) {
+        List<Row> matching =
+                filter.isEmpty() ? rows : rows.stream().filter(matches(filter.get())).toList();
+        int from = (int) Math.min(pageable.getOffset(), matching.size());
+        int to = Math.min(from + pageable.getPageSize(), matching.size());
+        return new PageImpl<>(matching.subList(from, to), pageable, matching.size());
+    }
+
+    static long count(List<Row> rows, Optional<String> filter) {
+        return filter.isEmpty() ? rows.size() : rows.stream().filter(matches(filter.get())).count();
+    }
+
+    static Grid<Row> grid() {
+        Grid<Row> grid = new Grid<>();
+        grid.addColumn(Row::id).setHeader("Id").setKey("id");
+        grid.addColumn(Row::name).setHeader("Name").setKey("name");
+        grid.addColumn(Row::age).setHeader("Age").setKey("age");
+        grid.addColumn(Row::balance).setHeader("Balance").setKey("balance");
+        grid.addColumn(Row::joined).setHeader("Joined").setKey("joined");
+        return grid;
+    }
+
+    /** The export value providers of the {@link #grid()} columns, by column key. */
+    static Map<String, ValueProvider<Row, ?>> valueProviders() {
+        return Map.of(
+                "id", Row::id,
+                "name", Row::name,
+                "age", Row::age,
+                "balance", Row::balance,
+                "joined", Row::joined);
+    }
+
+    static int[] offsets(int pages, int pageSize) {
+        return IntStream.range(0, pages).map(page -> page * pageSize).toArray();
+    }
+
+    private static Predicate<Row> matches(String fragment) {
+        return row -> row.name().contains(fragment);
+    }
+}
@@ -0,0 +1,69 @@
+package org.vaadin.addons.antlerflow.grid.benchmark;
+
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.addons.antlerflow.grid.benchmark.BenchmarkData.Row;
+import org.vaadin.addons.antlerflow.grid.exporter.ChunkedDataFetcher;
+import org.vaadin.addons.antlerflow.grid.exporter.ExportColumn;
+import org.vaadin.addons.antlerflow.grid.exporter.streaming.StreamingExporter;
+import org.vaadin.addons.antlerflow.grid.exporter.streaming.StreamingFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full export through the chunked fetcher, compiled column extraction and the row writers, into
+ * a discarding output stream. Run with {@code -prof gc} to see the allocation per export.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ExportBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rowCount;
+
+    @Param({"CSV", "TSV", "JSON_LINES"})
+    private StreamingFormat format;
+
+    @Param({"1000"})
+    private int chunkSize;
+
+    private ListDataProvider<Row> dataProvider;
+    private StreamingExporter<Row> exporter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataProvider = new ListDataProvider<>(BenchmarkData.rows(rowCount));
+        Grid<Row> grid = BenchmarkData.grid();
+        List<ExportColumn<Row>> columns =
+                ExportColumn.fromGrid(grid, column -> true, BenchmarkData.valueProviders());
+        exporter = new StreamingExporter<>(format, columns, chunkSize);
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        ChunkedDataFetcher<Row> fetcher =
+                new ChunkedDataFetcher<>(
+                        dataProvider, new Query<>(), chunkSize, Integer.MAX_VALUE);
+        return exporter.write(fetcher.stream(), OutputStream.nullOutputStream());
+    }
+}
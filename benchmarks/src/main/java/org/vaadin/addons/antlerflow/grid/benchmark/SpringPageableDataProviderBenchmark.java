@@ -0,0 +1,99 @@
+package org.vaadin.addons.antlerflow.grid.benchmark;
+
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.vaadin.addons.antlerflow.grid.benchmark.BenchmarkData.Row;
+import org.vaadin.addons.antlerflow.grid.dataprovider.SpringPageableDataProvider;
+import org.vaadin.addons.antlerflow.grid.dataprovider.cache.QueryKey;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache-key generation, the cache hit and miss paths of {@link SpringPageableDataProvider#fetch}
+ * and the count path, against an in-memory backend so only the provider overhead is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpringPageableDataProviderBenchmark {
+
+    /** More pages than the default cache holds, so cycling through them always misses. */
+    private static final int MISS_PAGES = 256;
+
+    @Param({"50"})
+    private int pageSize;
+
+    @Param({"100000"})
+    private int rowCount;
+
+    private List<QuerySortOrder> sortOrders;
+    private SpringPageableDataProvider<Row, String> pageProvider;
+    private SpringPageableDataProvider<Row, String> sliceProvider;
+    private Query<Row, String> firstPage;
+    private int[] offsets;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Row> rows = BenchmarkData.rows(rowCount);
+        sortOrders = QuerySortOrder.asc("name").thenDesc("id").build();
+        pageProvider =
+                new SpringPageableDataProvider<>(
+                        (filter, pageable) -> BenchmarkData.page(rows, filter, pageable));
+        sliceProvider =
+                new SpringPageableDataProvider<>(
+                        (filter, pageable) -> BenchmarkData.page(rows, filter, pageable),
+                        filter -> BenchmarkData.count(rows, filter));
+        firstPage = new Query<>(0, pageSize, sortOrders, null, null);
+        offsets = BenchmarkData.offsets(Math.min(MISS_PAGES, rowCount / pageSize), pageSize);
+        // Warm the cache for the hit path.
+        pageProvider.fetch(firstPage).count();
+        sliceProvider.size(firstPage);
+    }
+
+    @Benchmark
+    public QueryKey cacheKey() {
+        return QueryKey.of("Person 4", sortOrders, 200, pageSize);
+    }
+
+    @Benchmark
+    public void fetchCacheHit(Blackhole blackhole) {
+        pageProvider.fetch(firstPage).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void fetchCacheMiss(Blackhole blackhole) {
+        int offset = offsets[next++ % offsets.length];
+        sliceProvider
+                .fetch(new Query<>(offset, pageSize, sortOrders, null, null))
+                .forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public int countCached() {
+        return sliceProvider.size(firstPage);
+    }
+
+    @Benchmark
+    public int countUncached() {
+        sliceProvider.refreshAll();
+        return sliceProvider.size(firstPage);
+    }
+}
@@ -0,0 +1,85 @@
+package org.vaadin.addons.antlerflow.grid.benchmark;
+
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.ListDataProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.addons.antlerflow.grid.benchmark.BenchmarkData.Row;
+import org.vaadin.addons.antlerflow.grid.exporter.ExportSize;
+import org.vaadin.addons.antlerflow.grid.exporter.GridExportConfig;
+import org.vaadin.addons.antlerflow.grid.exporter.xdevsoftware.XDEVSoftwareFormat;
+import org.vaadin.addons.antlerflow.grid.exporter.xdevsoftware.XDEVSoftwareGridExportHandler;
+import software.xdev.vaadin.grid_exporter.column.ColumnConfiguration;
+import software.xdev.vaadin.grid_exporter.format.Format;
+import software.xdev.vaadin.grid_exporter.grid.GridDataExtractor;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full export through {@link XDEVSoftwareGridExportHandler}: its chunked data extractor feeding
+ * the GridExporter format, as the export dialog runs it once the user confirms. The dialog itself
+ * needs a UI and is left out. Run with {@code -prof gc} to see the allocation per export.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class XDEVExportBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rowCount;
+
+    @Param({"CSV", "XLSX"})
+    private XDEVSoftwareFormat format;
+
+    private Grid<Row> grid;
+    private ListDataProvider<Row> dataProvider;
+    private GridExportConfig<Row> config;
+    private ExposedHandler handler;
+    private Format exportFormat;
+    private List<ColumnConfiguration<Row>> columns;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataProvider = new ListDataProvider<>(BenchmarkData.rows(rowCount));
+        grid = BenchmarkData.grid();
+        grid.setItems(dataProvider);
+        config = GridExportConfig.<Row>builder().size(ExportSize.ALL).build();
+        handler = new ExposedHandler();
+        exportFormat = format.getFormat();
+        columns = handler.columns(grid);
+    }
+
+    @Benchmark
+    public byte[] export() {
+        GridDataExtractor<Row> extractor = handler.extractor(grid, dataProvider, config);
+        return exportFormat.export(extractor, columns, List.of());
+    }
+
+    /** Opens up the steps the handler hands to the export dialog. */
+    private static final class ExposedHandler extends XDEVSoftwareGridExportHandler<Row> {
+
+        GridDataExtractor<Row> extractor(
+                Grid<Row> grid, DataProvider<Row, ?> dataProvider, GridExportConfig<Row> config) {
+            return getGridDataExtractor(grid, dataProvider, config);
+        }
+
+        List<ColumnConfiguration<Row>> columns(Grid<Row> grid) {
+            return getColumnConfigurationBuilder().build(grid, column -> true);
+        }
+    }
+}
@@ -1,25 +1,47 @@
 package org.vaadin.addons.antlerflow.grid;
 
+import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.HasComponents;
 import com.vaadin.flow.component.HasSize;
 import com.vaadin.flow.component.HasStyle;
+import com.vaadin.flow.component.HasValue;
 import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.data.provider.*;
+import com.vaadin.flow.data.value.HasValueChangeMode;
+import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.shared.Registration;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.vaadin.addons.antlerflow.grid.concurrent.CancellableTask;
+import org.vaadin.addons.antlerflow.grid.concurrent.GridExecutors;
+import org.vaadin.addons.antlerflow.grid.dataprovider.IndexedListDataProvider;
+import org.vaadin.addons.antlerflow.grid.dataprovider.PageWindowDataProvider;
+import org.vaadin.addons.antlerflow.grid.dataprovider.ThreadSafeDataProvider;
+import org.vaadin.addons.antlerflow.grid.dataprovider.count.ItemCount;
+import org.vaadin.addons.antlerflow.grid.dataprovider.count.ItemCountProvider;
 import org.vaadin.addons.antlerflow.grid.exporter.GridExportConfig;
 import org.vaadin.addons.antlerflow.grid.exporter.GridExportHandler;
 import org.vaadin.addons.antlerflow.grid.exporter.xdevsoftware.XDEVSoftwareGridExportHandler;
+import org.vaadin.addons.antlerflow.grid.metrics.GridMetrics;
+import org.vaadin.addons.antlerflow.grid.metrics.HasMetricsId;
 import org.vaadin.addons.antlerflow.grid.pagination.Paginator;
 
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * AdvancedGrid is a component that enhances the functionality of a standard Grid by incorporating
@@ -29,6 +51,7 @@ import java.util.stream.Collectors;
  *
  * @param <T> the type of items contained in the grid
  */
+@Slf4j
 @Tag("af-advanced-grid")
 @JsModule("./antlerflow/advanced-grid/advanced-grid.ts")
 public class AdvancedGrid<T> extends Component implements HasComponents, HasSize, HasStyle {
@@ -54,8 +77,64 @@ public class AdvancedGrid<T> extends Component implements HasComponents, HasSize
      */
     private DataProvider<T, ?> originalInnerGridDataProvider;
 
+    /** Long-lived provider showing the current page of the base provider in paginated mode. */
+    private PageWindowDataProvider<T> pageWindow;
+
     private boolean paginated = false;
 
+    /**
+     * When set, the total is computed in the background after the page rows are shown, and pushed
+     * to the paginator once known. Requires server push for the update to arrive without waiting
+     * for the next round trip, and a {@link ThreadSafeDataProvider}; other providers are counted
+     * on the request thread.
+     */
+    @Getter private boolean deferredCount = false;
+
+    /** Executor running deferred counts; defaults to virtual threads. */
+    @Getter @Setter private Executor countExecutor = GridExecutors.defaultExecutor();
+
+    private Future<?> pendingCount;
+
+    /**
+     * When set, page rows are loaded on the load executor instead of while holding the session
+     * lock, and applied through {@code UI.access}; the grid shows a loading state meanwhile. Totals
+     * are then counted in the background too. Applies to paginated mode with a {@link
+     * ThreadSafeDataProvider} and requires server push.
+     */
+    @Getter private boolean asyncLoading = false;
+
+    /** Executor loading pages in async mode; defaults to virtual threads. */
+    @Getter @Setter private Executor loadExecutor = GridExecutors.defaultExecutor();
+
+    private Future<?> pendingLoad;
+
+    /** Identifies the latest page load so a late result never replaces a newer page. */
+    private long loadRequest;
+
+    /** Identifies the latest count request so results of superseded ones are dropped. */
+    private long countRequest;
+
+    /** Bumped whenever the total may have changed: new data provider, data or filter change. */
+    private long countGeneration;
+
+    /** The count generation the paginator's total belongs to. */
+    private long countedGeneration = -1;
+
+    /** Whether the shown total is exact and stays valid while only the page changes. */
+    private boolean countReusable;
+
+    /** Receives page render timings, tagged with the component id. */
+    @Getter @Setter private GridMetrics metrics = GridMetrics.getDefault();
+
+    /** The metrics id last handed to the data provider, to tell it from one set explicitly. */
+    private String propagatedMetricsId;
+
+    /** Client-side debounce of filter fields bound with {@link #bindFilter}. */
+    @Getter @Setter private int filterDebounceMillis = 300;
+
+    /** The filter refresh scheduled for the current round trip, if any. */
+    private Registration pendingFilterRefresh;
+
     private final List<Registration> registrations = new ArrayList<>();
     @Getter private Button exportButton;
 
@@ -105,10 +184,26 @@ public class AdvancedGrid<T> extends Component implements HasComponents, HasSize
         paginator.setVisible(false);
         paginator.getElement().setAttribute("slot", "paginator");
         setPageSizes(pageSizes.toArray(new Integer[0]));
-        paginator.addPageChangeListener(e -> refreshGridData());
+        paginator.addPageChangeListener(e -> onPageChange());
         add(paginator);
     }
 
+    private void onPageChange() {
+        long start = System.nanoTime();
+        refreshGridData();
+        Optional<UI> ui = getUI();
+        if (ui.isPresent()) {
+            // The page is rendered once the response carrying it is written.
+            ui.get().beforeClientResponse(this, context -> recordPageRender(start));
+        } else {
+            recordPageRender(start);
+        }
+    }
+
+    private void recordPageRender(long start) {
+        metrics.recordPageRender(GridMetrics.gridIdOf(this), System.nanoTime() - start);
+    }
+
     /** Injects the given Grid into the "grid" slot inside the Lit template. */
     public void setInnerGrid(Grid<T> innerGrid) {
         Objects.requireNonNull(innerGrid, "grid must not be null");
@@ -122,12 +217,15 @@ public class AdvancedGrid<T> extends Component implements HasComponents, HasSize
         this.innerGrid.setSizeFull();
         this.innerGrid.getElement().setAttribute("slot", "grid");
 
-        this.originalInnerGridDataProvider = this.innerGrid.getDataProvider();
+        DataProvider<T, ?> gridProvider = this.innerGrid.getDataProvider();
+        this.originalInnerGridDataProvider =
+                gridProvider == pageWindow ? pageWindow.getBase() : gridProvider;
 
         this.innerGrid.addSortListener(e -> resetPagination());
         registerDataProviderListeners(getBaseDataProvider());
+        propagateMetricsId();
 
-        recalcTotalItems();
+        invalidateCount();
         refreshGridData();
 
         add(this.innerGrid);
@@ -147,17 +245,50 @@ public class AdvancedGrid<T> extends Component implements HasComponents, HasSize
         Objects.requireNonNull(dataProvider, "dataProvider must not be null");
         this.externalDataProvider = dataProvider;
         registerDataProviderListeners(dataProvider);
+        propagateMetricsId();
         if (!paginated) {
             innerGrid.setDataProvider(dataProvider);
         }
-        recalcTotalItems();
+        invalidateCount();
         resetPagination();
     }
 
     private void registerDataProviderListeners(DataProvider<T, ?> dataProvider) {
         clearRegistrations();
         if (dataProvider != null) {
-            registrations.add(dataProvider.addDataProviderListener(e -> resetPagination()));
+            registrations.add(
+                    dataProvider.addDataProviderListener(
+                            e -> {
+                                // Refreshing a single item never changes the total.
+                                if (!(e instanceof DataChangeEvent.DataRefreshEvent)) {
+                                    invalidateCount();
+                                }
+                                resetPagination();
+                            }));
+        }
+    }
+
+    @Override
+    public void setId(String id) {
+        super.setId(id);
+        propagateMetricsId();
+    }
+
+    /**
+     * Tags the metrics a data provider reports itself with this grid's id, so they match the
+     * grid's own. Leaves ids set explicitly on the provider alone.
+     */
+    private void propagateMetricsId() {
+        if (getBaseDataProvider() instanceof HasMetricsId provider) {
+            String current = provider.getMetricsId();
+            boolean explicit =
+                    current != null
+                            && !"default".equals(current)
+                            && !current.equals(propagatedMetricsId);
+            if (!explicit) {
+                propagatedMetricsId = GridMetrics.gridIdOf(this);
+                provider.setMetricsId(propagatedMetricsId);
+            }
         }
     }
 
@@ -166,17 +297,129 @@ public class AdvancedGrid<T> extends Component implements HasComponents, HasSize
         registrations.clear();
     }
 
+    /**
+     * Counts the items again on the next refresh, even if only the page changed. Call this after
+     * changing the backend data without notifying the data provider.
+     */
+    public void recount() {
+        invalidateCount();
+        recalcTotalItems();
+    }
+
+    private void invalidateCount() {
+        countGeneration++;
+    }
+
+    /**
+     * Skips the count for pure navigation: an exact total only changes with filter, data or data
+     * provider, all of which bump the count generation. Non-exact counts describe the current
+     * page and are always redone.
+     */
+    private void recalcTotalItemsIfStale() {
+        if (countedGeneration == countGeneration && (countReusable || pendingCount != null)) {
+            return;
+        }
+        recalcTotalItems();
+    }
+
     private void recalcTotalItems() {
         if (!paginated) {
             return;
         }
+        cancelPendingCount();
+        countedGeneration = countGeneration;
+        countReusable = false;
         DataProvider<T, ?> base = getBaseDataProvider();
         if (base == null) {
-            paginator.setTotalItems(0);
+            paginator.setCounting(false);
+            applyItemCount(ItemCount.exact(0));
+            return;
+        }
+        Query<T, Object> query = buildQuery(paginator.getOffset(), paginator.getPageSize());
+        Optional<UI> ui = getUI();
+        if ((deferredCount || asyncLoading) && ui.isPresent() && isThreadSafe(base)) {
+            countInBackground(ui.get(), base, query);
+            return;
+        }
+        paginator.setCounting(false);
+        applyItemCount(countItems(base, query));
+    }
+
+    /** Whether the provider may be queried off the request thread, without the session lock. */
+    private static boolean isThreadSafe(DataProvider<?, ?> dataProvider) {
+        return dataProvider instanceof ThreadSafeDataProvider;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ItemCount countItems(DataProvider<T, ?> base, Query<T, Object> query) {
+        if (base instanceof ItemCountProvider<?, ?> countProvider) {
+            return ((ItemCountProvider<T, Object>) countProvider).getItemCount(query);
+        }
+        return ItemCount.exact(((DataProvider<T, Object>) base).size(query));
+    }
+
+    private void countInBackground(UI ui, DataProvider<T, ?> base, Query<T, Object> query) {
+        long request = countRequest;
+        CancellableTask<Void> task =
+                new CancellableTask<>(
+                        () -> {
+                            try {
+                                ItemCount count = countItems(base, query);
+                                ui.access(() -> applyDeferredCount(request, count));
+                            } catch (UIDetachedException e) {
+                                // Nobody is waiting for the result anymore.
+                            } catch (RuntimeException e) {
+                                log.warn("Deferred count failed", e);
+                                ui.access(() -> applyDeferredCount(request, null));
+                            }
+                        },
+                        null);
+        paginator.setCounting(true);
+        pendingCount = task;
+        try {
+            countExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("Deferred count rejected by executor, counting synchronously", e);
+            pendingCount = null;
+            paginator.setCounting(false);
+            applyItemCount(countItems(base, query));
+        }
+    }
+
+    private void applyDeferredCount(long request, ItemCount count) {
+        if (request != countRequest) {
             return;
         }
-        Query query = buildQuery(paginator.getOffset(), paginator.getPageSize());
-        paginator.setTotalItems(base.size(query));
+        pendingCount = null;
+        paginator.setCounting(false);
+        if (count != null) {
+            applyItemCount(count);
+        }
+    }
+
+    private void applyItemCount(ItemCount count) {
+        paginator.setItemCount(count);
+        countReusable = count.isExact();
+    }
+
+    private void cancelPendingCount() {
+        countRequest++;
+        if (pendingCount != null) {
+            pendingCount.cancel(true);
+            pendingCount = null;
+        }
+    }
+
+    /**
+     * Enables or disables deferred counting. When enabled, page rows are rendered right away and
+     * the paginator shows a "counting" state until the total arrives. Only applies to {@link
+     * ThreadSafeDataProvider}s.
+     */
+    public void setDeferredCount(boolean deferredCount) {
+        this.deferredCount = deferredCount;
+        if (!deferredCount && pendingCount != null) {
+            recalcTotalItems();
+        }
     }
 
     public void setPageSizes(Integer... pageSizes) {
@@ -221,10 +464,69 @@ public class AdvancedGrid<T> extends Component implements HasComponents, HasSize
         if (!visibility) {
             restoreBaseDataProviderToGrid();
         } else {
+            invalidateCount();
             resetPagination();
         }
     }
 
+    /**
+     * Binds a filter field to the grid. Text input is debounced on the client ({@link
+     * ValueChangeMode#LAZY}, {@link #getFilterDebounceMillis()}), and all filter changes arriving
+     * in one round trip are coalesced into a single refresh of the data provider right before the
+     * response is written. The field is added to the filter slot if it has no parent yet.
+     *
+     * @param field the filter field
+     * @param filterUpdater applies the new value to the filter, e.g. {@code filter::setName}
+     * @return a registration removing the binding
+     */
+    public <V> Registration bindFilter(
+            HasValue<?, V> field, SerializableConsumer<V> filterUpdater) {
+        Objects.requireNonNull(field, "field must not be null");
+        Objects.requireNonNull(filterUpdater, "filterUpdater must not be null");
+        if (field instanceof HasValueChangeMode lazyField) {
+            lazyField.setValueChangeMode(ValueChangeMode.LAZY);
+            lazyField.setValueChangeTimeout(filterDebounceMillis);
+        }
+        if (field instanceof Component component && component.getParent().isEmpty()) {
+            addToFilters(component);
+        }
+        return field.addValueChangeListener(
+                event -> {
+                    filterUpdater.accept(event.getValue());
+                    scheduleFilterRefresh();
+                });
+    }
+
+    private void scheduleFilterRefresh() {
+        if (pendingFilterRefresh != null) {
+            return;
+        }
+        Optional<UI> ui = getUI();
+        if (ui.isEmpty()) {
+            refreshFilteredData();
+            return;
+        }
+        pendingFilterRefresh =
+                ui.get()
+                        .beforeClientResponse(
+                                this,
+                                context -> {
+                                    pendingFilterRefresh = null;
+                                    refreshFilteredData();
+                                });
+    }
+
+    private void refreshFilteredData() {
+        DataProvider<T, ?> base = getBaseDataProvider();
+        if (base instanceof IndexedListDataProvider<?> indexed) {
+            // Only the filter changed, so narrowing filters can start from earlier matches.
+            indexed.refreshFilter();
+        } else if (base != null) {
+            // Fires a data change event, which recounts and goes back to the first page.
+            base.refreshAll();
+        }
+    }
+
     /** Adds components to the "toolbar" slot. */
     public void addToFilters(Component... components) {
         for (Component c : components) {
@@ -257,18 +559,108 @@ public class AdvancedGrid<T> extends Component implements HasComponents, HasSize
 
         if (!paginated) {
             restoreBaseDataProviderToGrid();
-            recalcTotalItems();
             return;
         }
 
         int offset = paginator.getOffset();
         int limit = paginator.getPageSize();
 
-        Query query = buildQuery(offset, limit);
-        DataProvider<T, ?> pageProvider = DataProvider.fromStream(base.fetch(query));
+        if (pageWindow == null || pageWindow.getBase() != base) {
+            pageWindow = new PageWindowDataProvider<>(base);
+        }
+        pageWindow.setWindow(offset, limit);
+        Optional<UI> ui = getUI();
+        boolean async = asyncLoading && ui.isPresent() && isThreadSafe(base);
+        pageWindow.setFetchOnDemand(!async);
+        if (innerGrid.getDataProvider() != pageWindow) {
+            innerGrid.setDataProvider(pageWindow);
+        } else if (!async) {
+            pageWindow.refreshAll();
+        }
+        if (async) {
+            loadPageInBackground(ui.get(), base);
+        } else {
+            cancelPendingLoad();
+        }
+        recalcTotalItemsIfStale();
+    }
+
+    private void loadPageInBackground(UI ui, DataProvider<T, ?> base) {
+        cancelPendingLoad();
+        long request = loadRequest;
+        PageWindowDataProvider<T> window = pageWindow;
+        Query<T, Object> gridQuery = buildQuery(0, paginator.getPageSize());
+        Query<T, Object> windowQuery = window.windowQuery(gridQuery);
+        CancellableTask<Void> task =
+                new CancellableTask<>(
+                        () -> {
+                            try {
+                                List<T> rows = fetchRows(base, windowQuery);
+                                ui.access(() -> applyLoadedPage(request, window, gridQuery, rows));
+                            } catch (UIDetachedException e) {
+                                // Nobody is waiting for the page anymore.
+                            } catch (RuntimeException e) {
+                                log.warn("Loading page failed", e);
+                                ui.access(() -> applyLoadedPage(request, window, gridQuery, null));
+                            }
+                        },
+                        null);
+        setLoading(true);
+        pendingLoad = task;
+        try {
+            loadExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("Page load rejected by executor, loading synchronously", e);
+            pendingLoad = null;
+            applyLoadedPage(request, window, gridQuery, fetchRows(base, windowQuery));
+        }
+    }
 
-        innerGrid.setDataProvider(pageProvider);
-        recalcTotalItems();
+    @SuppressWarnings("unchecked")
+    private List<T> fetchRows(DataProvider<T, ?> base, Query<T, Object> query) {
+        try (Stream<T> rows = ((DataProvider<T, Object>) base).fetch(query)) {
+            return rows.toList();
+        }
+    }
+
+    private void applyLoadedPage(
+            long request,
+            PageWindowDataProvider<T> window,
+            Query<T, Object> gridQuery,
+            List<T> rows) {
+        if (request != loadRequest) {
+            return;
+        }
+        pendingLoad = null;
+        setLoading(false);
+        if (rows != null && window == pageWindow) {
+            window.showRows(gridQuery, rows);
+        }
+    }
+
+    private void cancelPendingLoad() {
+        loadRequest++;
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
+            pendingLoad = null;
+        }
+        setLoading(false);
+    }
+
+    private void setLoading(boolean loading) {
+        getElement().setProperty("loading", loading);
+    }
+
+    /**
+     * Enables or disables async loading. When enabled, page rows of a {@link
+     * ThreadSafeDataProvider} are fetched in the background and the grid shows a loading indicator
+     * until they arrive. Other providers keep loading on the request thread.
+     */
+    public void setAsyncLoading(boolean asyncLoading) {
+        this.asyncLoading = asyncLoading;
+        if (!asyncLoading && pendingLoad != null) {
+            refreshGridData();
+        }
     }
 
     private void restoreBaseDataProviderToGrid() {
@@ -283,6 +675,47 @@ public class AdvancedGrid<T> extends Component implements HasComponents, HasSize
     }
 
     private Query<T, Object> buildQuery(int offset, int pageSize) {
-        return innerGrid.getDataCommunicator().buildQuery(offset, pageSize);
+        DataCommunicator<T> communicator = innerGrid.getDataCommunicator();
+        // buildQuery returns a raw Query; take only its filter and the sorting typed.
+        Query<?, ?> built = communicator.buildQuery(offset, pageSize);
+        return new Query<>(
+                offset,
+                pageSize,
+                communicator.getBackEndSorting(),
+                communicator.getInMemorySorting(),
+                built.getFilter().orElse(null));
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        // The id may come from an ancestor, which is only known once attached.
+        propagateMetricsId();
+        if (paginator.isCounting()) {
+            // A deferred count was abandoned on detach (e.g. @PreserveOnRefresh); start over.
+            recalcTotalItems();
+        }
+        if (getElement().getProperty("loading", false)) {
+            // Same for a page load.
+            refreshGridData();
+        }
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        if (pendingFilterRefresh != null) {
+            // Callbacks of detached components are dropped; refresh now so the change isn't lost.
+            pendingFilterRefresh.remove();
+            pendingFilterRefresh = null;
+            refreshFilteredData();
+        }
+        cancelPendingCount();
+        if (pendingLoad != null) {
+            loadRequest++;
+            pendingLoad.cancel(true);
+            pendingLoad = null;
+            // Keep the loading state so the page is loaded again on re-attach.
+        }
+        super.onDetach(detachEvent);
     }
 }
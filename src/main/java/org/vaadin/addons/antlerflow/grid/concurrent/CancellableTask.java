@@ -0,0 +1,39 @@
+package org.vaadin.addons.antlerflow.grid.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A task running with its own {@link CancellationToken}. Cancelling the task cancels the token,
+ * so data suppliers can abort their query, besides interrupting the thread if requested.
+ *
+ * @param <V> the result type
+ */
+public class CancellableTask<V> extends FutureTask<V> {
+
+    private final CancellationToken token;
+
+    public CancellableTask(Callable<V> callable) {
+        this(new CancellationToken(), callable);
+    }
+
+    public CancellableTask(Runnable runnable, V result) {
+        this(new CancellationToken(), Executors.callable(runnable, result));
+    }
+
+    private CancellableTask(CancellationToken token, Callable<V> callable) {
+        super(() -> token.call(callable));
+        this.token = token;
+    }
+
+    public CancellationToken getToken() {
+        return token;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        token.cancel();
+        return super.cancel(mayInterruptIfRunning);
+    }
+}
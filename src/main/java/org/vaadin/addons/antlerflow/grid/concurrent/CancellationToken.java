@@ -0,0 +1,105 @@
+package org.vaadin.addons.antlerflow.grid.concurrent;
+
+import com.vaadin.flow.shared.Registration;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Signals that background work of the grid (a page load, count, prefetch or export) has been
+ * superseded. Data suppliers running in such work find the token with {@link #current()} and can
+ * stop early or register a hook that cancels the underlying query:
+ *
+ * <pre>{@code
+ * CancellationToken.current().onCancel(statement::cancel);
+ * }</pre>
+ *
+ * Work on the request thread runs with a token that is never cancelled.
+ */
+@Slf4j
+public final class CancellationToken {
+
+    private static final CancellationToken NONE = new CancellationToken();
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+
+    private final List<Runnable> hooks = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled;
+
+    /** Returns the token of the work running on this thread, or one that is never cancelled. */
+    public static CancellationToken current() {
+        CancellationToken token = CURRENT.get();
+        return token != null ? token : NONE;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws CancellationException if the token has been cancelled
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Superseded by a newer request");
+        }
+    }
+
+    /**
+     * Runs the hook when the token is cancelled, on the cancelling thread, or right away if it
+     * already is. Remove the registration once the guarded work is done.
+     */
+    public Registration onCancel(Runnable hook) {
+        if (this == NONE) {
+            return () -> {};
+        }
+        hooks.add(hook);
+        if (cancelled && hooks.remove(hook)) {
+            runHook(hook);
+        }
+        return () -> hooks.remove(hook);
+    }
+
+    /** Cancels the token and runs its hooks. Later calls have no effect. */
+    public void cancel() {
+        if (this == NONE) {
+            return;
+        }
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+        }
+        for (Runnable hook : hooks) {
+            if (hooks.remove(hook)) {
+                runHook(hook);
+            }
+        }
+    }
+
+    /** Calls the action with this token as {@link #current()}. */
+    public <V> V call(Callable<V> action) throws Exception {
+        CancellationToken previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return action.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    private static void runHook(Runnable hook) {
+        try {
+            hook.run();
+        } catch (RuntimeException e) {
+            log.warn("Cancellation hook failed", e);
+        }
+    }
+}
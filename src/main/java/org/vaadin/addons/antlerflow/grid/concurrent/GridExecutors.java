@@ -0,0 +1,22 @@
+package org.vaadin.addons.antlerflow.grid.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/** Executors shared by the background work of the grid (prefetching, counting, exporting). */
+public final class GridExecutors {
+
+    private static final ExecutorService DEFAULT =
+            Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("advanced-grid-", 0).factory());
+
+    private GridExecutors() {}
+
+    /**
+     * Returns the application-wide default executor, which runs every task on its own virtual
+     * thread. Tasks are expected to block on I/O, so no pooling is needed.
+     */
+    public static ExecutorService defaultExecutor() {
+        return DEFAULT;
+    }
+}
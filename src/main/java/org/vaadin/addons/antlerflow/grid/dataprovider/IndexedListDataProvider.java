@@ -0,0 +1,566 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider;
+
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.function.SerializableComparator;
+import com.vaadin.flow.function.SerializablePredicate;
+import com.vaadin.flow.function.ValueProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.vaadin.addons.antlerflow.grid.dataprovider.cache.CacheStats;
+import org.vaadin.addons.antlerflow.grid.dataprovider.cache.PageCache;
+import org.vaadin.addons.antlerflow.grid.dataprovider.cache.PageCacheConfig;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+
+/**
+ * A {@link ListDataProvider} that filters and sorts the items once per filter and sort
+ * combination and serves pages and sizes by slicing the result, instead of filtering and sorting
+ * the whole list for every query. Results are kept in a bounded {@link PageCache} and dropped by
+ * {@link #refreshAll()} and {@link #refreshItem(Object)}.
+ *
+ * <p>Filters and comparators are compared by identity, as created by the grid for a sort or by
+ * {@link #setFilter}. Filters reading mutable state need a {@link #refreshAll()} after a change,
+ * like any in-memory provider.
+ *
+ * <p>With a {@link ParallelPolicy}, large lists are filtered and sorted on a fork/join pool;
+ * filters and comparators must then be thread-safe.
+ *
+ * <p>Match sets of {@link RefinablePredicate} filters are remembered, so a filter narrowing an
+ * earlier state, like search-as-you-type, is evaluated against the earlier matches only. Refresh
+ * with {@link #refreshFilter()} after a filter change to keep them; {@link #refreshAll()} means the
+ * items may have changed and drops them. They are bounded by {@link #setMatchSetBudgetBytes}, and
+ * sets matching more than half of the items are not kept.
+ *
+ * <p>Declaring searchable fields builds a trigram index over them, which answers {@link
+ * #setSearchText(String) search text} ("contains", ignoring case) by intersecting posting lists
+ * instead of scanning every item. {@link #addItem}, {@link #removeItem} and {@link #refreshItem}
+ * update the index incrementally; {@link #refreshAll()} rebuilds it on the next query. The index
+ * tracks item instances, so refresh an item changed in place, or replace it with {@link
+ * #removeItem} and {@link #addItem}.
+ *
+ * @param <T> the item type
+ */
+@Slf4j
+public class IndexedListDataProvider<T> extends ListDataProvider<T> {
+
+    private static final int MAX_MATCH_SETS = 6;
+
+    /** Match sets holding more than this share of the items are not remembered. */
+    private static final double MAX_MATCH_SET_FRACTION = 0.5;
+
+    private static final PageCacheConfig DEFAULT_CONFIG =
+            PageCacheConfig.builder()
+                    .maxEntries(8)
+                    .maxWeightBytes(64L * 1024 * 1024)
+                    .timeToLive(Duration.ofMinutes(10))
+                    .build();
+
+    /** Filtered and sorted items, keyed by the filters and comparators that produced them. */
+    private volatile PageCache<ViewKey<T>, Object[]> views;
+
+    /** When to filter and sort in parallel; {@code null} keeps it on the calling thread. */
+    private volatile ParallelPolicy parallelPolicy;
+
+    /** Recent results of refinable filters, most recent first, for narrowing filters to reuse. */
+    private final Deque<MatchSet<T>> matchSets = new ArrayDeque<>();
+
+    /** Estimated heap held by {@link #matchSets}; guarded by it. */
+    private long matchSetBytes;
+
+    private volatile long matchSetBudgetBytes = 16L * 1024 * 1024;
+
+    /** Set while a filter or sort setter refreshes, which leaves the items unchanged. */
+    private boolean filterOnly;
+
+    /** Index over the searchable fields; {@code null} if none are declared. */
+    private volatile TrigramIndex<T> searchIndex;
+
+    /** Whether the index must be rebuilt from the items before its next use. */
+    private volatile boolean searchIndexStale;
+
+    /** Normalized search text; {@code null} when not searching. */
+    private volatile String searchText;
+
+    public IndexedListDataProvider(Collection<T> items) {
+        this(items, DEFAULT_CONFIG);
+    }
+
+    public IndexedListDataProvider(Collection<T> items, PageCacheConfig cacheConfig) {
+        super(items);
+        setCacheConfig(cacheConfig);
+    }
+
+    public PageCacheConfig getCacheConfig() {
+        return views.getConfig();
+    }
+
+    /** Replaces the cache with an empty one bounded by the given config. */
+    public void setCacheConfig(PageCacheConfig cacheConfig) {
+        Objects.requireNonNull(cacheConfig, "cacheConfig");
+        this.views = new PageCache<>(cacheConfig, IndexedListDataProvider::weightOf);
+    }
+
+    public long getMatchSetBudgetBytes() {
+        return matchSetBudgetBytes;
+    }
+
+    /**
+     * Bounds the heap the remembered match sets of {@link RefinablePredicate} filters may hold, on
+     * top of the cache. Pass {@code 0} to remember none.
+     */
+    public void setMatchSetBudgetBytes(long matchSetBudgetBytes) {
+        if (matchSetBudgetBytes < 0) {
+            throw new IllegalArgumentException("matchSetBudgetBytes must not be negative");
+        }
+        this.matchSetBudgetBytes = matchSetBudgetBytes;
+        synchronized (matchSets) {
+            trimMatchSets();
+        }
+    }
+
+    public ParallelPolicy getParallelPolicy() {
+        return parallelPolicy;
+    }
+
+    /**
+     * Enables parallel filtering and sorting for lists of at least the policy's threshold. Pass
+     * {@code null} to disable.
+     */
+    public void setParallelPolicy(ParallelPolicy parallelPolicy) {
+        this.parallelPolicy = parallelPolicy;
+    }
+
+    /**
+     * Declares the fields {@link #setSearchText(String)} searches and indexes them. Pass no fields
+     * to drop the index.
+     */
+    @SafeVarargs
+    public final void setSearchableFields(ValueProvider<T, String>... fields) {
+        List<ValueProvider<T, String>> declared = new ArrayList<>(fields.length);
+        for (ValueProvider<T, String> field : fields) {
+            declared.add(field);
+        }
+        setSearchableFields(declared);
+    }
+
+    /** Declares the fields {@link #setSearchText(String)} searches, like the varargs variant. */
+    public void setSearchableFields(List<ValueProvider<T, String>> fields) {
+        searchIndex = fields.isEmpty() ? null : new TrigramIndex<>(fields);
+        searchIndexStale = true;
+        refreshFilter();
+    }
+
+    public String getSearchText() {
+        return searchText;
+    }
+
+    /**
+     * Shows only items whose searchable fields contain the text, ignoring case. A blank text
+     * clears the search.
+     *
+     * @throws IllegalStateException if no searchable fields are declared
+     */
+    public void setSearchText(String text) {
+        if (searchIndex == null) {
+            throw new IllegalStateException("No searchable fields declared");
+        }
+        searchText = text == null || text.isBlank() ? null : TrigramIndex.normalize(text);
+        refreshFilter();
+    }
+
+    /** Adds an item to the backing collection and the search index, and refreshes. */
+    public void addItem(T item) {
+        getItems().add(item);
+        TrigramIndex<T> index = searchIndex;
+        if (index != null && !searchIndexStale) {
+            index.add(item);
+        }
+        itemsChanged();
+    }
+
+    /** Removes an item from the backing collection and the search index, and refreshes. */
+    public void removeItem(T item) {
+        // Unindex the instance actually removed, which may be another one equal to the item.
+        Iterator<T> items = getItems().iterator();
+        while (items.hasNext()) {
+            T candidate = items.next();
+            if (Objects.equals(candidate, item)) {
+                items.remove();
+                TrigramIndex<T> index = searchIndex;
+                if (index != null && !searchIndexStale) {
+                    index.remove(candidate);
+                }
+                break;
+            }
+        }
+        itemsChanged();
+    }
+
+    public CacheStats getCacheStats() {
+        return views.getStats();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<T> fetch(Query<T, SerializablePredicate<T>> query) {
+        Object[] rows = resolve(query);
+        int from = Math.min(query.getOffset(), rows.length);
+        int to = (int) Math.min((long) from + query.getLimit(), rows.length);
+        return Arrays.stream(rows, from, to).map(row -> (T) row);
+    }
+
+    @Override
+    public int size(Query<T, SerializablePredicate<T>> query) {
+        return resolve(query).length;
+    }
+
+    /**
+     * Refreshes after a change of filter state only, e.g. a filter field being edited. Unlike
+     * {@link #refreshAll()}, earlier match sets stay valid, so {@link RefinablePredicate} filters
+     * narrowing a previous state are evaluated against its matches only.
+     */
+    public void refreshFilter() {
+        views.invalidateAll();
+        super.refreshAll();
+    }
+
+    @Override
+    public void setFilter(SerializablePredicate<T> filter) {
+        filterOnly = true;
+        try {
+            super.setFilter(filter);
+        } finally {
+            filterOnly = false;
+        }
+    }
+
+    @Override
+    public void setSortComparator(SerializableComparator<T> comparator) {
+        filterOnly = true;
+        try {
+            super.setSortComparator(comparator);
+        } finally {
+            filterOnly = false;
+        }
+    }
+
+    @Override
+    public void refreshAll() {
+        if (!filterOnly) {
+            clearMatchSets();
+            searchIndexStale = true;
+        }
+        views.invalidateAll();
+        super.refreshAll();
+    }
+
+    @Override
+    public void refreshItem(T item) {
+        // The item may have moved in or out of a filter, or to another sort position.
+        reindex(item);
+        clearMatchSets();
+        views.invalidateAll();
+        super.refreshItem(item);
+    }
+
+    @Override
+    public void refreshItem(T item, boolean refreshChildren) {
+        reindex(item);
+        clearMatchSets();
+        views.invalidateAll();
+        super.refreshItem(item, refreshChildren);
+    }
+
+    private Object[] resolve(Query<T, SerializablePredicate<T>> query) {
+        ViewKey<T> key =
+                new ViewKey<>(
+                        getFilter(),
+                        query.getFilter().orElse(null),
+                        searchText,
+                        query.getInMemorySorting(),
+                        getSortComparator());
+        Object[] rows = views.get(key);
+        if (rows == null) {
+            long start = System.nanoTime();
+            rows = filterAndSort(key);
+            log.debug(
+                    "Indexed {} of {} items in {} ms",
+                    rows.length,
+                    getItems().size(),
+                    (System.nanoTime() - start) / 1_000_000);
+            views.put(key, rows);
+        }
+        return rows;
+    }
+
+    private Object[] filterAndSort(ViewKey<T> key) {
+        Object[] matches = match(key);
+        Comparator<T> comparator = key.comparator();
+        if (comparator == null) {
+            return matches;
+        }
+        // Match sets stay in list order, so sort a copy.
+        Object[] rows = matches.clone();
+        return runMaybeParallel(rows.length, parallel -> sort(rows, comparator, parallel));
+    }
+
+    /** Returns the items passing the search and both filters, in list order. */
+    private Object[] match(ViewKey<T> key) {
+        TextSearch<T> search = textSearch(key.searchText());
+        SerializablePredicate<T> providerFilter = key.providerFilter();
+        SerializablePredicate<T> queryFilter = key.queryFilter();
+        RefinablePredicate<T> providerState = snapshotOf(providerFilter);
+        RefinablePredicate<T> queryState = snapshotOf(queryFilter);
+        boolean refinable =
+                (providerFilter == null || providerState != null)
+                        && (queryFilter == null || queryState != null);
+        if (!refinable) {
+            return filter(searchHits(search), null, providerFilter, queryFilter);
+        }
+        if (search == null && providerState == null && queryState == null) {
+            return filter(null, null, null, null);
+        }
+
+        MatchSet<T> base = findMatchSet(search, providerState, queryState);
+        if (base != null && base.isSameAs(search, providerState, queryState)) {
+            return base.rows();
+        }
+        Object[] matches =
+                base != null
+                        ? filter(base.rows(), search, providerState, queryState)
+                        : filter(searchHits(search), null, providerState, queryState);
+        remember(new MatchSet<>(search, providerState, queryState, matches));
+        return matches;
+    }
+
+    private void remember(MatchSet<T> matchSet) {
+        long weight = weightOf(matchSet.rows());
+        // Narrowing a set close to the whole list saves little for the memory it holds.
+        if (matchSet.rows().length > getItems().size() * MAX_MATCH_SET_FRACTION
+                || weight > matchSetBudgetBytes) {
+            return;
+        }
+        synchronized (matchSets) {
+            matchSets.addFirst(matchSet);
+            matchSetBytes += weight;
+            trimMatchSets();
+        }
+    }
+
+    private void trimMatchSets() {
+        while (matchSets.size() > MAX_MATCH_SETS
+                || (!matchSets.isEmpty() && matchSetBytes > matchSetBudgetBytes)) {
+            matchSetBytes -= weightOf(matchSets.removeLast().rows());
+        }
+    }
+
+    /** Items containing the search text, from the index; {@code null} means all items. */
+    private Object[] searchHits(TextSearch<T> search) {
+        return search != null ? search.index().search(search.query()) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object[] filter(
+            Object[] base,
+            SerializablePredicate<T> search,
+            SerializablePredicate<T> providerFilter,
+            SerializablePredicate<T> queryFilter) {
+        int size = base != null ? base.length : getItems().size();
+        return runMaybeParallel(
+                size,
+                parallel -> {
+                    Stream<T> stream =
+                            base != null ? Arrays.stream((T[]) base) : getItems().stream();
+                    if (parallel) {
+                        stream = stream.parallel();
+                    }
+                    if (search != null) {
+                        stream = stream.filter(search);
+                    }
+                    // Provider filter first, so query filters never see items it excludes.
+                    if (providerFilter != null) {
+                        stream = stream.filter(providerFilter);
+                    }
+                    if (queryFilter != null) {
+                        stream = stream.filter(queryFilter);
+                    }
+                    return stream.toArray();
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object[] sort(Object[] rows, Comparator<T> comparator, boolean parallel) {
+        if (parallel) {
+            Arrays.parallelSort((T[]) rows, comparator);
+        } else {
+            Arrays.sort((T[]) rows, comparator);
+        }
+        return rows;
+    }
+
+    private Object[] runMaybeParallel(int size, ParallelWork work) {
+        ParallelPolicy policy = parallelPolicy;
+        if (policy == null || !policy.appliesTo(size)) {
+            return work.run(false);
+        }
+        // Parallel streams and sorts started inside the pool fork into that pool.
+        return policy.getPool().invoke(ForkJoinTask.adapt(() -> work.run(true)));
+    }
+
+    /** The smallest remembered match set the filters narrow, or one they equal. */
+    private MatchSet<T> findMatchSet(
+            TextSearch<T> search,
+            RefinablePredicate<T> providerState,
+            RefinablePredicate<T> queryState) {
+        synchronized (matchSets) {
+            MatchSet<T> best = null;
+            for (MatchSet<T> candidate : matchSets) {
+                if (candidate.isSameAs(search, providerState, queryState)) {
+                    return candidate;
+                }
+                if (candidate.isNarrowedBy(search, providerState, queryState)
+                        && (best == null || candidate.rows().length < best.rows().length)) {
+                    best = candidate;
+                }
+            }
+            return best;
+        }
+    }
+
+    /** Returns the search for the text over an up-to-date index, or {@code null}. */
+    private TextSearch<T> textSearch(String text) {
+        TrigramIndex<T> index = searchIndex;
+        if (text == null || index == null) {
+            return null;
+        }
+        if (searchIndexStale) {
+            synchronized (index) {
+                if (searchIndexStale) {
+                    long start = System.nanoTime();
+                    index.rebuild(getItems());
+                    searchIndexStale = false;
+                    log.debug(
+                            "Built search index over {} items in {} ms",
+                            getItems().size(),
+                            (System.nanoTime() - start) / 1_000_000);
+                }
+            }
+        }
+        return new TextSearch<>(index, text);
+    }
+
+    private void reindex(T item) {
+        TrigramIndex<T> index = searchIndex;
+        if (index != null && !searchIndexStale) {
+            index.update(item);
+        }
+    }
+
+    private void itemsChanged() {
+        clearMatchSets();
+        views.invalidateAll();
+        super.refreshAll();
+    }
+
+    private void clearMatchSets() {
+        synchronized (matchSets) {
+            matchSets.clear();
+            matchSetBytes = 0;
+        }
+    }
+
+    private static long weightOf(Object[] rows) {
+        // One reference per row; 8 bytes covers uncompressed oops too.
+        return 8L * rows.length;
+    }
+
+    private static <T> RefinablePredicate<T> snapshotOf(SerializablePredicate<T> filter) {
+        return filter instanceof RefinablePredicate<T> refinable ? refinable.snapshot() : null;
+    }
+
+    @FunctionalInterface
+    private interface ParallelWork {
+        Object[] run(boolean parallel);
+    }
+
+    /** A search for normalized text; a longer text containing an earlier one narrows it. */
+    private record TextSearch<T>(TrigramIndex<T> index, String query)
+            implements RefinablePredicate<T> {
+
+        @Override
+        public boolean test(T item) {
+            return index.matches(item, query);
+        }
+
+        @Override
+        public boolean refines(RefinablePredicate<T> previous) {
+            return previous instanceof TextSearch<T> other
+                    && other.index == index
+                    && query.contains(other.query);
+        }
+    }
+
+    /** Items matching a snapshot of the search and filters, in list order. */
+    private record MatchSet<T>(
+            TextSearch<T> search,
+            RefinablePredicate<T> providerFilter,
+            RefinablePredicate<T> queryFilter,
+            Object[] rows) {
+
+        boolean isSameAs(
+                TextSearch<T> search,
+                RefinablePredicate<T> provider,
+                RefinablePredicate<T> query) {
+            return Objects.equals(this.search, search)
+                    && Objects.equals(providerFilter, provider)
+                    && Objects.equals(queryFilter, query);
+        }
+
+        boolean isNarrowedBy(
+                TextSearch<T> search,
+                RefinablePredicate<T> provider,
+                RefinablePredicate<T> query) {
+            return narrows(search, this.search)
+                    && narrows(provider, providerFilter)
+                    && narrows(query, queryFilter);
+        }
+
+        private static <T> boolean narrows(
+                RefinablePredicate<T> current, RefinablePredicate<T> previous) {
+            if (previous == null) {
+                // No filter before: everything matched.
+                return true;
+            }
+            return current != null && (current.equals(previous) || current.refines(previous));
+        }
+    }
+
+    private record ViewKey<T>(
+            SerializablePredicate<T> providerFilter,
+            SerializablePredicate<T> queryFilter,
+            String searchText,
+            Comparator<T> querySorting,
+            SerializableComparator<T> providerSorting) {
+
+        /** Query sorting first, the provider's own sort order breaking ties. */
+        Comparator<T> comparator() {
+            if (querySorting == null) {
+                return providerSorting;
+            }
+            return providerSorting == null
+                    ? querySorting
+                    : querySorting.thenComparing(providerSorting);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider;
+
+import com.vaadin.flow.data.provider.AbstractBackEndDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.function.ValueProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.vaadin.addons.antlerflow.grid.dataprovider.cache.CacheKeySupplier;
+import org.vaadin.addons.antlerflow.grid.dataprovider.cache.QueryKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * A data provider that pages with keyset (seek) queries instead of OFFSET/LIMIT, so deep pages are
+ * as cheap as the first one. It remembers the first and last sort keys of every visited page and
+ * asks the backend for the rows after (or before) a known boundary when the user moves to an
+ * adjacent page. Random jumps to pages with no known neighbour fall back to an offset query.
+ *
+ * <p>Every property the grid may sort by must be registered with {@link
+ * #addKeyProperty(String, ValueProvider)}, and a unique property is always appended to the sort so
+ * keys are total. Remembered boundaries are scoped by filter as {@link QueryKey} compares it: the
+ * filter must be immutable or implement {@link CacheKeySupplier}, otherwise mutating it in place
+ * keeps serving boundaries of the old row set until {@link #refreshAll()}.
+ *
+ * <p>The provider is a {@link ThreadSafeDataProvider}: the callbacks may be called from background
+ * threads and must be thread-safe.
+ *
+ * @param <T> the type of the data items to provide
+ * @param <F> the type of the filter used for querying the data
+ */
+@Slf4j
+public class KeysetDataProvider<T, F> extends AbstractBackEndDataProvider<T, F>
+        implements ThreadSafeDataProvider {
+
+    /** Upper bound for remembered page boundaries per filter/sort combination. */
+    private static final int MAX_REMEMBERED_PAGES = 1024;
+
+    private final Function<KeysetQuery<F>, List<T>> fetchCallback;
+    private final ToLongFunction<Optional<F>> countCallback;
+    private final String uniqueKeyProperty;
+    private final Map<String, ValueProvider<T, ?>> keyProperties = new LinkedHashMap<>();
+
+    private final Map<Integer, PageBoundary> boundaries =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, PageBoundary> eldest) {
+                    return size() > MAX_REMEMBERED_PAGES;
+                }
+            };
+
+    /** Filter, sort and page size the remembered boundaries belong to. */
+    private QueryKey boundaryScope;
+
+    private volatile F filter;
+
+    /**
+     * @param fetchCallback runs a {@link KeysetQuery} against the backend
+     * @param countCallback counts all rows matching the filter
+     * @param uniqueKeyProperty a unique, sortable property (usually the id) used as tie-breaker
+     * @param uniqueKeyGetter reads the unique property from an item
+     */
+    public KeysetDataProvider(
+            Function<KeysetQuery<F>, List<T>> fetchCallback,
+            ToLongFunction<Optional<F>> countCallback,
+            String uniqueKeyProperty,
+            ValueProvider<T, ?> uniqueKeyGetter) {
+        this.fetchCallback = Objects.requireNonNull(fetchCallback, "fetchCallback");
+        this.countCallback = Objects.requireNonNull(countCallback, "countCallback");
+        this.uniqueKeyProperty = Objects.requireNonNull(uniqueKeyProperty, "uniqueKeyProperty");
+        addKeyProperty(uniqueKeyProperty, uniqueKeyGetter);
+    }
+
+    /** Registers a sort property and how to read its value from an item. */
+    public KeysetDataProvider<T, F> addKeyProperty(String property, ValueProvider<T, ?> getter) {
+        keyProperties.put(
+                Objects.requireNonNull(property, "property"),
+                Objects.requireNonNull(getter, "getter"));
+        return this;
+    }
+
+    public F getFilter() {
+        return filter;
+    }
+
+    public void setFilter(F filter) {
+        this.filter = filter;
+        clearBoundaries();
+    }
+
+    @Override
+    public void refreshAll() {
+        clearBoundaries();
+        super.refreshAll();
+    }
+
+    @Override
+    protected Stream<T> fetchFromBackEnd(Query<T, F> query) {
+        int limit = query.getLimit();
+        if (limit <= 0) {
+            return Stream.empty();
+        }
+        Optional<F> effectiveFilter = getEffectiveFilter(query);
+        List<QuerySortOrder> sortOrders = withUniqueKey(query.getSortOrders());
+        // Fail before the backend query rather than when reading the keys of its rows.
+        requireKeyProperties(sortOrders);
+        boolean aligned = query.getOffset() % limit == 0;
+        int pageIndex = query.getOffset() / limit;
+
+        KeysetQuery<F> keysetQuery;
+        synchronized (boundaries) {
+            QueryKey scope = QueryKey.of(effectiveFilter.orElse(null), sortOrders, 0, limit);
+            if (!scope.equals(boundaryScope)) {
+                boundaries.clear();
+                boundaryScope = scope;
+            }
+            keysetQuery =
+                    aligned
+                            ? planPageQuery(effectiveFilter, sortOrders, pageIndex, limit)
+                            : offsetQuery(effectiveFilter, sortOrders, query.getOffset(), limit);
+        }
+
+        log.debug(
+                keysetQuery.isKeyset()
+                        ? "Fetching data from backend by keyset"
+                        : "Fetching data from backend by offset");
+        List<T> rows = fetchCallback.apply(keysetQuery);
+        rows = rows == null ? List.of() : rows;
+        if (keysetQuery.backward()) {
+            rows = new ArrayList<>(rows);
+            Collections.reverse(rows);
+        }
+
+        if (aligned && !rows.isEmpty()) {
+            PageBoundary boundary =
+                    new PageBoundary(
+                            keyOf(rows.getFirst(), sortOrders), keyOf(rows.getLast(), sortOrders));
+            synchronized (boundaries) {
+                boundaries.put(pageIndex, boundary);
+            }
+        }
+        return rows.stream();
+    }
+
+    @Override
+    protected int sizeInBackEnd(Query<T, F> query) {
+        long total = countCallback.applyAsLong(getEffectiveFilter(query));
+        return total > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) total;
+    }
+
+    private KeysetQuery<F> planPageQuery(
+            Optional<F> effectiveFilter,
+            List<QuerySortOrder> sortOrders,
+            int pageIndex,
+            int limit) {
+        if (pageIndex == 0) {
+            return offsetQuery(effectiveFilter, sortOrders, 0, limit);
+        }
+        PageBoundary previous = boundaries.get(pageIndex - 1);
+        if (previous != null) {
+            return new KeysetQuery<>(
+                    effectiveFilter, sortOrders, previous.lastKey(), false, 0, limit);
+        }
+        PageBoundary next = boundaries.get(pageIndex + 1);
+        if (next != null) {
+            return new KeysetQuery<>(
+                    effectiveFilter, sortOrders, next.firstKey(), true, 0, limit);
+        }
+        return offsetQuery(effectiveFilter, sortOrders, (long) pageIndex * limit, limit);
+    }
+
+    private KeysetQuery<F> offsetQuery(
+            Optional<F> effectiveFilter, List<QuerySortOrder> sortOrders, long offset, int limit) {
+        return new KeysetQuery<>(effectiveFilter, sortOrders, null, false, offset, limit);
+    }
+
+    private List<QuerySortOrder> withUniqueKey(List<QuerySortOrder> sortOrders) {
+        List<QuerySortOrder> result = new ArrayList<>(sortOrders == null ? List.of() : sortOrders);
+        if (result.stream().noneMatch(order -> uniqueKeyProperty.equals(order.getSorted()))) {
+            result.add(new QuerySortOrder(uniqueKeyProperty, SortDirection.ASCENDING));
+        }
+        return result;
+    }
+
+    private void requireKeyProperties(List<QuerySortOrder> sortOrders) {
+        for (QuerySortOrder order : sortOrders) {
+            if (!keyProperties.containsKey(order.getSorted())) {
+                throw new IllegalStateException(
+                        "No key property registered for sort property '"
+                                + order.getSorted()
+                                + "'");
+            }
+        }
+    }
+
+    private List<Object> keyOf(T item, List<QuerySortOrder> sortOrders) {
+        List<Object> key = new ArrayList<>(sortOrders.size());
+        for (QuerySortOrder order : sortOrders) {
+            key.add(keyProperties.get(order.getSorted()).apply(item));
+        }
+        return key;
+    }
+
+    private void clearBoundaries() {
+        synchronized (boundaries) {
+            boundaries.clear();
+            boundaryScope = null;
+        }
+    }
+
+    private Optional<F> getEffectiveFilter(Query<T, F> query) {
+        // Query filter wins, otherwise fall back to provider-level filter.
+        return Optional.ofNullable(query.getFilter().orElse(filter));
+    }
+
+    private record PageBoundary(List<Object> firstKey, List<Object> lastKey) {}
+}
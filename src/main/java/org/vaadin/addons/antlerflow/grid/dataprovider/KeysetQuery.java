@@ -0,0 +1,66 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider;
+
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A request issued by {@link KeysetDataProvider}. When {@link #boundary()} is {@code null} the
+ * backend must return {@code limit} rows starting at {@code offset}. Otherwise it must return the
+ * {@code limit} rows that follow the boundary key, in {@link #effectiveSortOrders()} order, i.e.
+ * {@code WHERE (sort cols) > (boundary) ORDER BY sort cols LIMIT limit} for forward navigation and
+ * the same with every direction flipped for backward navigation.
+ *
+ * @param filter the effective filter
+ * @param sortOrders the requested sort orders, always ending with the unique key property
+ * @param boundary key values aligned with {@code sortOrders}, or {@code null} for an offset query
+ * @param backward whether rows before the boundary are requested
+ * @param offset the offset to use when there is no boundary
+ * @param limit the maximum number of rows to return
+ * @param <F> the filter type
+ */
+public record KeysetQuery<F>(
+        Optional<F> filter,
+        List<QuerySortOrder> sortOrders,
+        List<Object> boundary,
+        boolean backward,
+        long offset,
+        int limit) {
+
+    public KeysetQuery {
+        Objects.requireNonNull(filter, "filter");
+        sortOrders = List.copyOf(sortOrders);
+        // Key values may legitimately be null, which List.copyOf would reject.
+        boundary =
+                boundary == null ? null : Collections.unmodifiableList(new ArrayList<>(boundary));
+    }
+
+    public boolean isKeyset() {
+        return boundary != null;
+    }
+
+    /**
+     * The order the backend must sort by: the requested order for forward and offset queries, the
+     * reversed order for backward queries. Rows of backward queries are returned nearest-first and
+     * reversed by the provider.
+     */
+    public List<QuerySortOrder> effectiveSortOrders() {
+        if (!backward) {
+            return sortOrders;
+        }
+        return sortOrders.stream()
+                .map(
+                        order ->
+                                new QuerySortOrder(
+                                        order.getSorted(),
+                                        order.getDirection() == SortDirection.ASCENDING
+                                                ? SortDirection.DESCENDING
+                                                : SortDirection.ASCENDING))
+                .toList();
+    }
+}
@@ -0,0 +1,145 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider;
+
+import com.vaadin.flow.data.provider.AbstractBackEndDataProvider;
+import com.vaadin.flow.data.provider.DataChangeEvent;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
+import org.vaadin.addons.antlerflow.grid.dataprovider.cache.QueryKey;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Shows one page of a base data provider. The grid keeps this provider for its whole life; a
+ * page change moves the window and refreshes it, instead of replacing the grid's provider, which
+ * would reset its data communicator and key mapper.
+ *
+ * <p>The rows of the current window are fetched once and serve both the grid's size and fetch
+ * queries. Sorting and filter of the grid's queries are passed on to the base provider.
+ *
+ * <p>With fetching on demand turned off, the provider never calls the base provider itself: rows
+ * loaded elsewhere (e.g. on a background thread) are handed over with {@link #showRows}, and until
+ * then the previous rows stay visible.
+ *
+ * @param <T> the item type
+ */
+public class PageWindowDataProvider<T> extends AbstractBackEndDataProvider<T, Object> {
+
+    private final DataProvider<T, Object> base;
+    private int offset;
+    private int limit;
+
+    private List<T> rows;
+    private QueryKey rowsKey;
+    private Comparator<T> rowsSorting;
+    private boolean fetchOnDemand = true;
+
+    @SuppressWarnings("unchecked")
+    public PageWindowDataProvider(DataProvider<T, ?> base) {
+        this.base = (DataProvider<T, Object>) Objects.requireNonNull(base, "base");
+    }
+
+    public DataProvider<T, ?> getBase() {
+        return base;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Moves the window. Call {@link #refreshAll()} afterward, or {@link #showRows} once the rows
+     * have been loaded, to show its rows.
+     */
+    public void setWindow(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit must not be negative");
+        }
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    public boolean isFetchOnDemand() {
+        return fetchOnDemand;
+    }
+
+    public void setFetchOnDemand(boolean fetchOnDemand) {
+        this.fetchOnDemand = fetchOnDemand;
+    }
+
+    /** The query for the base provider returning the rows of the current window. */
+    @SuppressWarnings("unchecked")
+    public Query<T, Object> windowQuery(Query<T, ?> gridQuery) {
+        return new Query<>(
+                offset,
+                limit,
+                gridQuery.getSortOrders(),
+                gridQuery.getInMemorySorting(),
+                ((Query<T, Object>) gridQuery).getFilter().orElse(null));
+    }
+
+    /**
+     * Shows rows loaded for the current window with {@link #windowQuery}, without going back to
+     * the base provider.
+     */
+    @SuppressWarnings("unchecked")
+    public void showRows(Query<T, ?> gridQuery, List<T> windowRows) {
+        remember((Query<T, Object>) gridQuery, List.copyOf(windowRows));
+        fireEvent(new DataChangeEvent<>(this));
+    }
+
+    @Override
+    public void refreshAll() {
+        rows = null;
+        super.refreshAll();
+    }
+
+    @Override
+    public Object getId(T item) {
+        return base.getId(item);
+    }
+
+    @Override
+    protected Stream<T> fetchFromBackEnd(Query<T, Object> query) {
+        List<T> window = windowRows(query);
+        int from = Math.min(query.getOffset(), window.size());
+        int to = Math.min(from + query.getLimit(), window.size());
+        return window.subList(from, to).stream();
+    }
+
+    @Override
+    protected int sizeInBackEnd(Query<T, Object> query) {
+        return windowRows(query).size();
+    }
+
+    private List<T> windowRows(Query<T, Object> query) {
+        if (rows != null
+                && keyOf(query).equals(rowsKey)
+                && query.getInMemorySorting() == rowsSorting) {
+            return rows;
+        }
+        if (!fetchOnDemand) {
+            return rows == null ? List.of() : rows;
+        }
+        try (Stream<T> stream = base.fetch(windowQuery(query))) {
+            remember(query, stream.toList());
+        }
+        return rows;
+    }
+
+    private void remember(Query<T, Object> query, List<T> windowRows) {
+        rows = windowRows;
+        rowsKey = keyOf(query);
+        rowsSorting = query.getInMemorySorting();
+    }
+
+    private QueryKey keyOf(Query<T, Object> query) {
+        return QueryKey.of(query.getFilter().orElse(null), query.getSortOrders(), offset, limit);
+    }
+}
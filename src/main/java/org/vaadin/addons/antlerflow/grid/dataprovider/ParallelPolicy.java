@@ -0,0 +1,33 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Describes when an in-memory provider filters and sorts in parallel, and on which pool. Below
+ * the threshold the work stays on the calling thread, where forking would cost more than it
+ * saves. The result is the same either way: filtering keeps the list order and sorting is stable.
+ */
+@Data
+@Builder
+public class ParallelPolicy {
+    /** Minimum number of items for the parallel path. */
+    @Builder.Default private int threshold = 50_000;
+
+    @Builder.Default private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    public static ParallelPolicy defaults() {
+        return builder().build();
+    }
+
+    /** Goes parallel on the common pool from {@code threshold} items on. */
+    public static ParallelPolicy aboveThreshold(int threshold) {
+        return builder().threshold(threshold).build();
+    }
+
+    public boolean appliesTo(int size) {
+        return size >= threshold;
+    }
+}
@@ -0,0 +1,40 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider;
+
+import lombok.Builder;
+import lombok.Data;
+import org.vaadin.addons.antlerflow.grid.concurrent.GridExecutors;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * Describes which pages adjacent to the one just served are loaded ahead of time, and where that
+ * work runs. Prefetching never blocks the caller: pages are loaded on the {@link #executor} and
+ * land in the provider's cache.
+ */
+@Data
+@Builder
+public class PrefetchPolicy {
+    /** How many pages to load ahead in each enabled direction. */
+    @Builder.Default private int depth = 1;
+
+    @Builder.Default private boolean forward = true;
+    @Builder.Default private boolean backward = true;
+    @Builder.Default private Executor executor = GridExecutors.defaultExecutor();
+
+    /**
+     * How long a fetch of a page that is still being prefetched waits for it before querying the
+     * backend itself. Fetches run on the request thread, so this stays short.
+     */
+    @Builder.Default private Duration maxWait = Duration.ofMillis(100);
+
+    /** Prefetches {@code depth} pages before and after the current one. */
+    public static PrefetchPolicy neighbours(int depth) {
+        return builder().depth(depth).build();
+    }
+
+    /** Prefetches only the next {@code depth} pages, for strictly sequential browsing. */
+    public static PrefetchPolicy ahead(int depth) {
+        return builder().depth(depth).backward(false).build();
+    }
+}
@@ -0,0 +1,30 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider;
+
+import com.vaadin.flow.function.SerializablePredicate;
+
+/**
+ * An in-memory filter that can tell when it is narrower than an earlier state of itself, so a
+ * provider can evaluate it against the previous matches instead of all items. Typing "jo", "joh",
+ * "john" into a name filter is the typical case.
+ *
+ * <p>Filters with mutable state return an immutable copy of their current state from {@link
+ * #snapshot()}; the provider keeps and compares snapshots only.
+ *
+ * @param <T> the item type
+ */
+public interface RefinablePredicate<T> extends SerializablePredicate<T> {
+
+    /**
+     * Returns an immutable predicate matching like this one does now, with value-based {@code
+     * equals}. Immutable filters return themselves.
+     */
+    default RefinablePredicate<T> snapshot() {
+        return this;
+    }
+
+    /**
+     * Whether every item matching this filter also matches {@code previous}, a snapshot taken
+     * earlier. Returning {@code false} is always safe.
+     */
+    boolean refines(RefinablePredicate<T> previous);
+}
@@ -2,50 +2,221 @@ package org.vaadin.addons.antlerflow.grid.dataprovider;
 
 import com.vaadin.flow.data.provider.AbstractBackEndDataProvider;
 import com.vaadin.flow.data.provider.Query;
-import com.vaadin.flow.data.provider.QuerySortOrder;
 import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.util.Base64;
-import java.util.List;
+import org.springframework.data.domain.Slice;
+import org.vaadin.addons.antlerflow.grid.concurrent.CancellableTask;
+import org.vaadin.addons.antlerflow.grid.concurrent.CancellationToken;
+import org.vaadin.addons.antlerflow.grid.dataprovider.cache.CacheKeySupplier;
+import org.vaadin.addons.antlerflow.grid.dataprovider.cache.CacheStats;
+import org.vaadin.addons.antlerflow.grid.dataprovider.cache.PageCache;
+import org.vaadin.addons.antlerflow.grid.dataprovider.cache.PageCacheConfig;
+import org.vaadin.addons.antlerflow.grid.dataprovider.cache.QueryKey;
+import org.vaadin.addons.antlerflow.grid.dataprovider.cache.SharedPageCache;
+import org.vaadin.addons.antlerflow.grid.dataprovider.count.CountContext;
+import org.vaadin.addons.antlerflow.grid.dataprovider.count.CountStrategy;
+import org.vaadin.addons.antlerflow.grid.dataprovider.count.ItemCount;
+import org.vaadin.addons.antlerflow.grid.dataprovider.count.ItemCountProvider;
+import org.vaadin.addons.antlerflow.grid.metrics.GridMetrics;
+import org.vaadin.addons.antlerflow.grid.metrics.HasMetricsId;
+
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
-import java.util.stream.Collectors;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
 
 /**
  * A data provider for Vaadin that integrates with Spring Data's a pageable mechanism to retrieve
  * and cache paginated data through a backend service.
  *
+ * <p>Rows and totals can come from one {@link Page}-returning supplier, or from a {@link
+ * Slice}-returning supplier paired with a dedicated count function. The latter keeps row fetches
+ * free of {@code COUNT(*)} queries and counts free of entity materialization.
+ *
+ * <p>The provider is a {@link ThreadSafeDataProvider}, so with deferred counts or async loading
+ * its suppliers run on background threads and must be thread-safe. Suppliers called from
+ * background work (prefetching, async page loads, deferred counts) can abort superseded queries
+ * through {@link CancellationToken#current()}.
+ *
  * @param <T> the type of the data items to provide
  * @param <F> the type of the filter used for querying the data
  */
 @Slf4j
-public class SpringPageableDataProvider<T, F> extends AbstractBackEndDataProvider<T, F> {
+public class SpringPageableDataProvider<T, F> extends AbstractBackEndDataProvider<T, F>
+        implements ItemCountProvider<T, F>,
+                UncachedFetchProvider<T, F>,
+                ThreadSafeDataProvider,
+                HasMetricsId {
 
-    private final BiFunction<Optional<F>, Pageable, Page<T>> dataSupplier;
+    private final BiFunction<Optional<F>, Pageable, ? extends Slice<T>> dataSupplier;
 
-    /**
-     * This provider effectively caches a single "last query" result. A single-entry cache is
-     * simpler than a Map and matches the current behavior (clear on new key).
-     */
-    private volatile CacheEntry<T> cache;
+    /** Dedicated count query; {@code null} means totals are read from the fetched {@link Page}. */
+    private final ToLongFunction<Optional<F>> countSupplier;
+
+    /** Recently fetched pages, keyed by filter + sort + page coordinates. */
+    private volatile PageCache<QueryKey, Slice<T>> cache;
 
     /**
      * Cache for total count, keyed by filter + sort only (ignores paging), so sizeInBackEnd won't
      * refetch when only pageSize/limit changes.
      */
-    private volatile CountCacheEntry countCache;
+    private volatile PageCache<QueryKey, ItemCount> countCache;
+
+    /** Optional application-scoped cache behind the own caches; {@code null} disables it. */
+    private volatile SharedPageCache sharedCache;
+
+    private volatile CountStrategy<F> countStrategy = CountStrategy.exact();
 
     private volatile F filter;
 
+    /** Optional policy for loading neighbouring pages ahead of time; {@code null} disables it. */
+    private volatile PrefetchPolicy prefetchPolicy;
+
+    /** In-flight prefetches keyed by page cache key, so a page is never loaded twice at once. */
+    private final Map<QueryKey, Future<?>> prefetches = new ConcurrentHashMap<>();
+
+    /** Filter + sort key the current prefetches belong to; a change cancels all of them. */
+    private volatile QueryKey prefetchScope;
+
+    /** Bumped on every cache clear so late prefetch results are not stored under stale state. */
+    private final AtomicLong cacheGeneration = new AtomicLong();
+
+    private volatile GridMetrics metrics = GridMetrics.getDefault();
+
+    /** Tags the metrics of this provider. */
+    private volatile String metricsId = "default";
+
     public SpringPageableDataProvider(BiFunction<Optional<F>, Pageable, Page<T>> dataSupplier) {
+        this(dataSupplier, PageCacheConfig.defaults());
+    }
+
+    public SpringPageableDataProvider(
+            BiFunction<Optional<F>, Pageable, Page<T>> dataSupplier, PageCacheConfig cacheConfig) {
         this.dataSupplier = Objects.requireNonNull(dataSupplier, "dataSupplier");
+        this.countSupplier = null;
+        setCacheConfig(cacheConfig);
+    }
+
+    /**
+     * Creates a provider that fetches rows as {@link Slice}s and counts through a separate
+     * function, so neither path pays for the other.
+     *
+     * @param sliceSupplier fetches one slice of rows for the filter and pageable
+     * @param countSupplier counts all rows matching the filter
+     */
+    public SpringPageableDataProvider(
+            BiFunction<Optional<F>, Pageable, ? extends Slice<T>> sliceSupplier,
+            ToLongFunction<Optional<F>> countSupplier) {
+        this(sliceSupplier, countSupplier, PageCacheConfig.defaults());
+    }
+
+    public SpringPageableDataProvider(
+            BiFunction<Optional<F>, Pageable, ? extends Slice<T>> sliceSupplier,
+            ToLongFunction<Optional<F>> countSupplier,
+            PageCacheConfig cacheConfig) {
+        this.dataSupplier = Objects.requireNonNull(sliceSupplier, "sliceSupplier");
+        this.countSupplier = Objects.requireNonNull(countSupplier, "countSupplier");
+        setCacheConfig(cacheConfig);
+    }
+
+    public PageCacheConfig getCacheConfig() {
+        return cache.getConfig();
+    }
+
+    /** Replaces the page and count caches with empty ones bounded by the given config. */
+    public void setCacheConfig(PageCacheConfig cacheConfig) {
+        Objects.requireNonNull(cacheConfig, "cacheConfig");
+        this.cache = new PageCache<>(cacheConfig, this::estimateWeight);
+        this.countCache = new PageCache<>(cacheConfig, count -> 32L);
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    public CacheStats getCountCacheStats() {
+        return countCache.getStats();
+    }
+
+    public String getSharedCache() {
+        SharedPageCache shared = sharedCache;
+        return shared != null ? shared.getName() : null;
+    }
+
+    /**
+     * Looks pages and counts up in the named {@link SharedPageCache} region before calling the
+     * suppliers, so sessions showing the same filter, sort and page share one backend query. Pass
+     * {@code null} to disable. The filter must implement {@code equals}/{@code hashCode} or {@link
+     * CacheKeySupplier} for keys to match across sessions. {@link #refreshAll()} only clears the
+     * caches of this provider; use {@link SharedPageCache#invalidateRegion(String)} after writes.
+     */
+    public void setSharedCache(String region) {
+        this.sharedCache = region != null ? SharedPageCache.region(region) : null;
+    }
+
+    public CountStrategy<F> getCountStrategy() {
+        return countStrategy;
+    }
+
+    /**
+     * Sets how totals are determined. Strategies other than {@link CountStrategy#exact()} probe
+     * the backend with small fetches, so they pay off with the slice-based constructor, where
+     * fetching rows does not also run a count query.
+     */
+    public void setCountStrategy(CountStrategy<F> countStrategy) {
+        this.countStrategy = Objects.requireNonNull(countStrategy, "countStrategy");
+        countCache.invalidateAll();
+    }
+
+    public PrefetchPolicy getPrefetchPolicy() {
+        return prefetchPolicy;
+    }
+
+    /**
+     * Enables loading of neighbouring pages after each fetch. Pass {@code null} to disable and
+     * cancel any prefetch still in progress. The data supplier is then also called from background
+     * threads, so it must be thread-safe.
+     */
+    public void setPrefetchPolicy(PrefetchPolicy prefetchPolicy) {
+        this.prefetchPolicy = prefetchPolicy;
+        if (prefetchPolicy == null) {
+            cancelPrefetches();
+        }
+    }
+
+    public GridMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(GridMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+    }
+
+    @Override
+    public String getMetricsId() {
+        return metricsId;
+    }
+
+    /**
+     * Sets the grid id fetch, count and cache metrics of this provider are tagged with. An {@code
+     * AdvancedGrid} showing the provider sets its own id unless one is set here.
+     */
+    @Override
+    public void setMetricsId(String metricsId) {
+        this.metricsId = Objects.requireNonNull(metricsId, "metricsId");
     }
 
     public F getFilter() {
@@ -59,13 +230,45 @@ public class SpringPageableDataProvider<T, F> extends AbstractBackEndDataProvide
 
     @Override
     protected Stream<T> fetchFromBackEnd(Query<T, F> query) {
-        return getCacheableResult(query).getContent().stream();
+        QueryKey key = generateCacheKey(query);
+        Slice<T> slice = getCacheableResult(query, key);
+        schedulePrefetch(query, key, slice);
+        return slice.getContent().stream();
+    }
+
+    /** Reads the rows from the suppliers, leaving the page caches and prefetching untouched. */
+    @Override
+    public Stream<T> fetchUncached(Query<T, F> query) {
+        return fetchSlice(getEffectiveFilter(query), toSpringPageable(query)).getContent().stream();
     }
 
     @Override
     protected int sizeInBackEnd(Query<T, F> query) {
-        long total = getCachedTotalElements(query);
-        return total > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) total;
+        return getItemCount(query).toSize();
+    }
+
+    @Override
+    public ItemCount getItemCount(Query<T, F> query) {
+        final QueryKey pageKey = generateCacheKey(query);
+        final QueryKey countKey = pageKey.withoutPaging();
+
+        ItemCount count = countCache.get(countKey);
+        metrics.recordCacheAccess(metricsId, "count", count != null);
+        if (count != null) {
+            log.debug("Loading total count from cache");
+        } else {
+            log.debug("Fetching total count from backend");
+            count = loadCount(query, pageKey, countKey);
+            if (count.precision() != ItemCount.Precision.UNKNOWN) {
+                // Unknown counts describe the current page only, so they can't be shared.
+                countCache.put(countKey, count);
+            }
+        }
+
+        if (!count.isExact() && count.precision() != ItemCount.Precision.UNKNOWN) {
+            count = count.withHasMore(getCacheableResult(query, pageKey).hasNext());
+        }
+        return count;
     }
 
     @Override
@@ -74,45 +277,208 @@ public class SpringPageableDataProvider<T, F> extends AbstractBackEndDataProvide
         super.refreshAll();
     }
 
+    @Override
+    public void refreshItem(T item) {
+        // Cached pages may hold a stale copy of the item; totals are unaffected.
+        cache.invalidateAll();
+        super.refreshItem(item);
+    }
+
     private void clearCache() {
-        cache = null;
-        countCache = null;
+        cacheGeneration.incrementAndGet();
+        cancelPrefetches();
+        cache.invalidateAll();
+        countCache.invalidateAll();
     }
 
-    private long getCachedTotalElements(Query<T, F> query) {
-        final String countKey = generateCountCacheKey(query);
+    /** Estimates the heap size of a cached page. Override for item types of unusual size. */
+    protected long estimateWeight(Slice<T> slice) {
+        return (long) slice.getNumberOfElements() * cache.getConfig().getEstimatedItemBytes();
+    }
 
-        CountCacheEntry local = countCache;
-        if (local != null && local.key().equals(countKey)) {
-            log.debug("Loading total count from cache");
-            return local.totalElements();
+    private long countInBackEnd(Query<T, F> query, QueryKey pageKey) {
+        if (countSupplier != null) {
+            return countSupplier.applyAsLong(getEffectiveFilter(query));
         }
+        // Page mode: the total only comes along with a page of rows.
+        Slice<T> slice = getCacheableResult(query, pageKey);
+        if (slice instanceof Page<T> page) {
+            return page.getTotalElements();
+        }
+        return (long) query.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+    }
 
-        log.debug("Fetching total count from backend");
-        long total = getCacheableResult(query).getTotalElements();
-
-        countCache = new CountCacheEntry(countKey, total);
-        return total;
+    private ItemCount loadCount(Query<T, F> query, QueryKey pageKey, QueryKey countKey) {
+        SharedPageCache shared = sharedCache;
+        if (shared == null) {
+            return runCountStrategy(query, pageKey, countStrategy);
+        }
+        CountStrategy<F> strategy = countStrategy;
+        SharedKey key = new SharedKey(strategy, countKey);
+        ItemCount count =
+                shared.get(key, () -> runCountStrategy(query, pageKey, strategy), c -> 32L);
+        if (count.precision() == ItemCount.Precision.UNKNOWN) {
+            shared.invalidate(key);
+        }
+        return count;
     }
 
-    private Page<T> getCacheableResult(Query<T, F> query) {
-        final String key = generateCacheKey(query);
+    private ItemCount runCountStrategy(
+            Query<T, F> query, QueryKey pageKey, CountStrategy<F> strategy) {
+        long start = System.nanoTime();
+        ItemCount count = strategy.count(new QueryCountContext(query, pageKey));
+        metrics.recordCount(metricsId, System.nanoTime() - start);
+        return count;
+    }
 
-        CacheEntry<T> local = cache;
-        if (local != null && local.key().equals(key)) {
+    private Slice<T> getCacheableResult(Query<T, F> query, QueryKey key) {
+        // The page may already be on its way; waiting for it beats issuing the same query twice.
+        awaitPrefetch(key);
+        Slice<T> cached = cache.get(key);
+        metrics.recordCacheAccess(metricsId, "page", cached != null);
+        if (cached != null) {
             log.debug("Loading data from cache");
-            return local.page();
+            return cached;
         }
 
         log.debug("Fetching data from backend");
-        Page<T> page = dataSupplier.apply(getEffectiveFilter(query), toSpringPageable(query));
-        cache = new CacheEntry<>(key, page);
+        Slice<T> slice = loadSlice(key, getEffectiveFilter(query), toSpringPageable(query));
+        cache.put(key, slice);
 
         // Opportunistically populate the count cache too (same filter/sort, regardless of paging)
-        long total = page == null ? 0L : page.getTotalElements();
-        countCache = new CountCacheEntry(generateCountCacheKey(query), total);
+        if (slice instanceof Page<T> page) {
+            countCache.put(key.withoutPaging(), ItemCount.exact(page.getTotalElements()));
+        }
+
+        return slice;
+    }
 
-        return page;
+    private Slice<T> loadSlice(QueryKey key, Optional<F> effectiveFilter, Pageable pageable) {
+        SharedPageCache shared = sharedCache;
+        if (shared == null) {
+            return fetchSlice(effectiveFilter, pageable);
+        }
+        return shared.get(
+                new SharedKey(null, key),
+                () -> fetchSlice(effectiveFilter, pageable),
+                this::estimateWeight);
+    }
+
+    private Slice<T> fetchSlice(Optional<F> effectiveFilter, Pageable pageable) {
+        CancellationToken.current().throwIfCancelled();
+        long start = System.nanoTime();
+        Slice<T> slice = dataSupplier.apply(effectiveFilter, pageable);
+        if (slice == null) {
+            slice = Page.empty();
+        }
+        metrics.recordFetch(metricsId, System.nanoTime() - start, slice.getNumberOfElements());
+        return slice;
+    }
+
+    private void schedulePrefetch(Query<T, F> query, QueryKey key, Slice<T> slice) {
+        PrefetchPolicy policy = prefetchPolicy;
+        int limit = query.getLimit();
+        if (policy == null
+                || policy.getDepth() <= 0
+                || limit <= 0
+                || query.getOffset() % limit != 0) {
+            return;
+        }
+
+        if (!key.sameScope(prefetchScope)) {
+            // Filter or sort changed: pages prefetched for the old state are useless now.
+            cancelPrefetches();
+            prefetchScope = key;
+        }
+
+        for (int distance = 1; distance <= policy.getDepth(); distance++) {
+            long step = (long) distance * limit;
+            if (policy.isForward() && mayHaveRowsAt(slice, query.getOffset() + step)) {
+                prefetch(query, key, (int) (query.getOffset() + step), policy);
+            }
+            if (policy.isBackward() && query.getOffset() - step >= 0) {
+                prefetch(query, key, (int) (query.getOffset() - step), policy);
+            }
+        }
+    }
+
+    private boolean mayHaveRowsAt(Slice<T> current, long offset) {
+        if (current instanceof Page<T> page) {
+            return offset < page.getTotalElements();
+        }
+        // A slice only knows whether the next page exists.
+        return current.hasNext();
+    }
+
+    private void prefetch(
+            Query<T, F> origin, QueryKey originKey, int offset, PrefetchPolicy policy) {
+        Query<T, F> query =
+                new Query<>(
+                        offset,
+                        origin.getLimit(),
+                        origin.getSortOrders(),
+                        origin.getInMemorySorting(),
+                        origin.getFilter().orElse(null));
+        QueryKey key = originKey.withPage(offset, origin.getLimit());
+        if (cache.containsKey(key) || prefetches.containsKey(key)) {
+            return;
+        }
+
+        Optional<F> effectiveFilter = getEffectiveFilter(query);
+        Pageable pageable = toSpringPageable(query);
+        long generation = cacheGeneration.get();
+        PrefetchTask task =
+                new PrefetchTask(
+                        key,
+                        () -> {
+                            log.debug("Prefetching data from backend");
+                            Slice<T> slice = loadSlice(key, effectiveFilter, pageable);
+                            if (cacheGeneration.get() != generation) {
+                                return;
+                            }
+                            cache.put(key, slice);
+                            if (cacheGeneration.get() != generation) {
+                                // Cleared while storing; don't leave a stale page behind.
+                                cache.invalidate(key);
+                            }
+                        });
+
+        if (prefetches.putIfAbsent(key, task) != null) {
+            return;
+        }
+        try {
+            policy.getExecutor().execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("Prefetch rejected by executor", e);
+            prefetches.remove(key, task);
+        }
+    }
+
+    /**
+     * Waits up to {@link PrefetchPolicy#getMaxWait()} for a prefetch of the page. The caller holds
+     * the session lock, so a slow prefetch must not stall it; past the limit it fetches directly.
+     */
+    private void awaitPrefetch(QueryKey key) {
+        Future<?> pending = prefetches.get(key);
+        PrefetchPolicy policy = prefetchPolicy;
+        if (pending == null || policy == null || policy.getMaxWait() == null) {
+            return;
+        }
+        try {
+            pending.get(policy.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            log.debug("Prefetch still running after {}, fetching directly", policy.getMaxWait());
+        } catch (ExecutionException | CancellationException e) {
+            // Fall through to a regular fetch.
+            log.debug("Prefetch did not complete", e);
+        }
+    }
+
+    private void cancelPrefetches() {
+        prefetches.values().forEach(future -> future.cancel(true));
+        prefetches.clear();
     }
 
     private Optional<F> getEffectiveFilter(Query<T, F> query) {
@@ -124,65 +490,83 @@ public class SpringPageableDataProvider<T, F> extends AbstractBackEndDataProvide
         return VaadinSpringDataHelpers.toSpringPageRequest(query);
     }
 
-    private String generateCacheKey(Query<T, F> query) {
-        String rawKey =
-                "p="
-                        + query.getPage()
-                        + ";ps="
-                        + query.getPageSize()
-                        + ";f="
-                        + stableString(getEffectiveFilter(query).orElse(null))
-                        + ";sort="
-                        + stableSortString(query.getSortOrders());
-
-        return hashToUrlSafeBase64(rawKey);
+    /**
+     * Builds the structural key of the query's page. The filter takes part through {@code equals}
+     * or, if it implements {@link CacheKeySupplier}, through its own cache key.
+     */
+    private QueryKey generateCacheKey(Query<T, F> query) {
+        return QueryKey.of(
+                getEffectiveFilter(query).orElse(null),
+                query.getSortOrders(),
+                query.getOffset(),
+                query.getLimit());
     }
 
-    private String generateCountCacheKey(Query<T, F> query) {
-        // Ignore paging so sizeInBackEnd isn't invalidated by page/pageSize changes.
-        String rawKey =
-                "f="
-                        + stableString(getEffectiveFilter(query).orElse(null))
-                        + ";sort="
-                        + stableSortString(query.getSortOrders());
+    private final class QueryCountContext implements CountContext<F> {
+        private final Query<T, F> query;
+        private final QueryKey pageKey;
 
-        return hashToUrlSafeBase64(rawKey);
-    }
+        private QueryCountContext(Query<T, F> query, QueryKey pageKey) {
+            this.query = query;
+            this.pageKey = pageKey;
+        }
 
-    protected String stableSortString(List<QuerySortOrder> sortOrders) {
-        if (sortOrders == null || sortOrders.isEmpty()) {
-            return "";
+        @Override
+        public Optional<F> getFilter() {
+            return getEffectiveFilter(query);
         }
-        return sortOrders.stream()
-                .map(so -> so.getSorted() + ":" + so.getDirection())
-                .collect(Collectors.joining(","));
-    }
 
-    protected String stableString(Object o) {
-        return o == null ? "" : String.valueOf(o);
-    }
+        @Override
+        public long getOffset() {
+            return query.getOffset();
+        }
 
-    private String hashToUrlSafeBase64(String input) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] digest = md.digest(input.getBytes(StandardCharsets.UTF_8));
-            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
-        } catch (Exception e) {
-            // Fallback to the raw (still deterministic) key if hashing is unavailable.
-            return input;
+        @Override
+        public int getLimit() {
+            return query.getLimit();
+        }
+
+        @Override
+        public long exactCount() {
+            return countInBackEnd(query, pageKey);
+        }
+
+        @Override
+        public boolean hasRowAt(long offset) {
+            // Row existence does not depend on sorting, so probe unsorted.
+            int page = (int) Math.min(offset, Integer.MAX_VALUE);
+            return fetchSlice(getFilter(), PageRequest.of(page, 1)).hasContent();
         }
-    }
 
-    private record CacheEntry<T>(String key, Page<T> page) {
-        private CacheEntry {
-            Objects.requireNonNull(key, "key");
-            page = page == null ? Page.empty() : page;
+        @Override
+        public int getPageRowCount() {
+            return getCacheableResult(query, pageKey).getNumberOfElements();
+        }
+
+        @Override
+        public boolean hasNextPage() {
+            return getCacheableResult(query, pageKey).hasNext();
         }
     }
 
-    private record CountCacheEntry(String key, long totalElements) {
-        private CountCacheEntry {
-            Objects.requireNonNull(key, "key");
+    /**
+     * Key of an entry in the shared cache: pages carry no strategy, counts the strategy that
+     * produced them, since capped or estimated totals must not answer for exact ones. Sessions
+     * share counts only if they use the same strategy instance, e.g. a constant.
+     */
+    private record SharedKey(Object strategy, QueryKey key) {}
+
+    private final class PrefetchTask extends CancellableTask<Void> {
+        private final QueryKey key;
+
+        private PrefetchTask(QueryKey key, Runnable work) {
+            super(work, null);
+            this.key = key;
+        }
+
+        @Override
+        protected void done() {
+            prefetches.remove(key, this);
         }
     }
 }
@@ -0,0 +1,13 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider;
+
+/**
+ * Marks a data provider whose {@code fetch} and {@code size} may run on background threads, while
+ * the UI thread keeps using it and without the session lock. {@code VaadinSession.getCurrent()}
+ * and {@code UI.getCurrent()} are {@code null} there, so backend callbacks must not rely on them,
+ * and filters must not be mutated while a query built from them is running.
+ *
+ * <p>{@code AdvancedGrid} only counts or loads pages in the background for providers carrying
+ * this marker; others are queried on the request thread as usual. Streaming and background
+ * exports read other providers with the session locked.
+ */
+public interface ThreadSafeDataProvider {}
@@ -0,0 +1,306 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider;
+
+import com.vaadin.flow.function.ValueProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted trigram index over the searchable text of in-memory items, answering case-insensitive
+ * "contains" queries. Each item gets a document number in the order it was added; a query
+ * intersects the posting lists of its trigrams and then verifies the remaining candidates, so the
+ * cost follows the number of candidates rather than the number of items. Removed items leave holes
+ * in the numbering, which are compacted away once they make up a quarter of the documents.
+ *
+ * <p>Documents are keyed by item identity, like the positions of the backing list, so equal items
+ * get a document each and an item stays found when an update changes its hash code.
+ *
+ * @param <T> the item type
+ */
+final class TrigramIndex<T> {
+
+    /** Separates the fields of an item, so no trigram spans two of them. */
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    /** Share of removed documents at which the numbering is compacted. */
+    private static final double MAX_HOLE_FRACTION = 0.25;
+
+    private final List<ValueProvider<T, String>> fields;
+
+    /** Items by document number; {@code null} once removed. */
+    private final List<T> documents = new ArrayList<>();
+
+    /** Normalized text by document number, kept to unindex and verify. */
+    private final List<String> texts = new ArrayList<>();
+
+    /** Document numbers by item instance. */
+    private final Map<T, Integer> documentIds = new IdentityHashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    /** Removed documents still taking up a number. */
+    private int holes;
+
+    TrigramIndex(List<ValueProvider<T, String>> fields) {
+        this.fields = List.copyOf(fields);
+    }
+
+    /**
+     * Folds the case of each code point on its own, as {@link String#regionMatches(boolean, int,
+     * String, int, int)} compares them, so matching agrees with {@code Strings.CI.contains}. Unlike
+     * {@link String#toLowerCase}, this never changes the length or depends on the context.
+     */
+    static String normalize(String text) {
+        StringBuilder folded = new StringBuilder(text.length());
+        text.codePoints()
+                .map(c -> Character.toLowerCase(Character.toUpperCase(c)))
+                .forEach(folded::appendCodePoint);
+        return folded.toString();
+    }
+
+    /** Whether the item's searchable text contains the normalized query. */
+    boolean matches(T item, String query) {
+        return textOf(item).contains(query);
+    }
+
+    synchronized void rebuild(Collection<T> items) {
+        documents.clear();
+        texts.clear();
+        documentIds.clear();
+        postings.clear();
+        holes = 0;
+        items.forEach(this::add);
+    }
+
+    synchronized void add(T item) {
+        int document = documents.size();
+        Integer previous = documentIds.putIfAbsent(item, document);
+        if (previous != null) {
+            update(item);
+            return;
+        }
+        String text = textOf(item);
+        documents.add(item);
+        texts.add(text);
+        for (long trigram : trigrams(text)) {
+            postings.computeIfAbsent(trigram, t -> new Postings()).add(document);
+        }
+    }
+
+    synchronized void remove(T item) {
+        Integer document = documentIds.remove(item);
+        if (document != null) {
+            unindex(document);
+            documents.set(document, null);
+            texts.set(document, null);
+            holes++;
+            if (holes > documents.size() * MAX_HOLE_FRACTION) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Re-indexes an item whose searchable fields may have changed. Instances not in the index,
+     * e.g. a copy of an indexed item, are ignored.
+     */
+    synchronized void update(T item) {
+        Integer document = documentIds.get(item);
+        if (document == null) {
+            return;
+        }
+        String text = textOf(item);
+        if (text.equals(texts.get(document))) {
+            return;
+        }
+        unindex(document);
+        texts.set(document, text);
+        for (long trigram : trigrams(text)) {
+            postings.computeIfAbsent(trigram, t -> new Postings()).add(document);
+        }
+    }
+
+    /**
+     * Returns the items whose text contains the normalized query, in document order. Queries
+     * shorter than a trigram are verified against every item.
+     */
+    synchronized Object[] search(String query) {
+        long[] trigrams = trigrams(query);
+        if (trigrams.length == 0) {
+            return verify(null, query);
+        }
+        Postings[] lists = new Postings[trigrams.length];
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = postings.get(trigrams[i]);
+            if (lists[i] == null || lists[i].size == 0) {
+                return new Object[0];
+            }
+        }
+        // Start from the rarest trigram so the candidate set is small from the outset.
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.length && count > 0; i++) {
+            count = lists[i].retain(candidates, count);
+        }
+        return verify(Arrays.copyOf(candidates, count), query);
+    }
+
+    private Object[] verify(int[] candidates, String query) {
+        List<Object> matches = new ArrayList<>();
+        int count = candidates != null ? candidates.length : documents.size();
+        for (int i = 0; i < count; i++) {
+            int document = candidates != null ? candidates[i] : i;
+            String text = texts.get(document);
+            if (text != null && text.contains(query)) {
+                matches.add(documents.get(document));
+            }
+        }
+        return matches.toArray();
+    }
+
+    /** Renumbers the remaining documents densely, keeping their order. */
+    private void compact() {
+        int[] renumbered = new int[documents.size()];
+        int live = 0;
+        for (int document = 0; document < documents.size(); document++) {
+            if (texts.get(document) != null) {
+                documents.set(live, documents.get(document));
+                texts.set(live, texts.get(document));
+                renumbered[document] = live++;
+            }
+        }
+        documents.subList(live, documents.size()).clear();
+        texts.subList(live, texts.size()).clear();
+        documentIds.replaceAll((id, document) -> renumbered[document]);
+        // Removed documents are in no posting list, and the order is kept, so lists stay sorted.
+        postings.values().forEach(list -> list.renumber(renumbered));
+        holes = 0;
+    }
+
+    private void unindex(int document) {
+        for (long trigram : trigrams(texts.get(document))) {
+            Postings list = postings.get(trigram);
+            if (list != null && list.remove(document) == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    private String textOf(T item) {
+        StringBuilder text = new StringBuilder();
+        for (ValueProvider<T, String> field : fields) {
+            if (!text.isEmpty()) {
+                text.append(FIELD_SEPARATOR);
+            }
+            String value = field.apply(item);
+            if (value != null) {
+                text.append(normalize(value));
+            }
+        }
+        return text.toString();
+    }
+
+    /** Distinct trigrams of the text, each packed into a long, in ascending order. */
+    private static long[] trigrams(String text) {
+        int length = text.length() - 2;
+        if (length <= 0) {
+            return new long[0];
+        }
+        long[] trigrams = new long[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            char a = text.charAt(i);
+            char b = text.charAt(i + 1);
+            char c = text.charAt(i + 2);
+            if (a != FIELD_SEPARATOR && b != FIELD_SEPARATOR && c != FIELD_SEPARATOR) {
+                trigrams[count++] = ((long) a << 32) | ((long) b << 16) | c;
+            }
+        }
+        Arrays.sort(trigrams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || trigrams[distinct - 1] != trigrams[i]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    /** Sorted document numbers containing one trigram. */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int document) {
+            if (size > 0 && ids[size - 1] >= document) {
+                // Only re-indexed documents land in the middle.
+                int index = Arrays.binarySearch(ids, 0, size, document);
+                if (index >= 0) {
+                    return;
+                }
+                insertAt(-index - 1, document);
+                return;
+            }
+            insertAt(size, document);
+        }
+
+        /** Removes the document and returns the remaining size. */
+        int remove(int document) {
+            int index = Arrays.binarySearch(ids, 0, size, document);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+            return size;
+        }
+
+        void renumber(int[] renumbered) {
+            for (int i = 0; i < size; i++) {
+                ids[i] = renumbered[ids[i]];
+            }
+        }
+
+        /** Keeps the first {@code count} candidates that are in this list; returns how many. */
+        int retain(int[] candidates, int count) {
+            int kept = 0;
+            if (size > count * 8) {
+                // Much longer than the candidates: probing beats walking the whole list.
+                int from = 0;
+                for (int i = 0; i < count; i++) {
+                    int index = Arrays.binarySearch(ids, from, size, candidates[i]);
+                    if (index >= 0) {
+                        candidates[kept++] = candidates[i];
+                        from = index + 1;
+                    } else {
+                        from = -index - 1;
+                    }
+                }
+                return kept;
+            }
+            int j = 0;
+            for (int i = 0; i < count && j < size; i++) {
+                while (j < size && ids[j] < candidates[i]) {
+                    j++;
+                }
+                if (j < size && ids[j] == candidates[i]) {
+                    candidates[kept++] = candidates[i];
+                }
+            }
+            return kept;
+        }
+
+        private void insertAt(int index, int document) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = document;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider;
+
+import com.vaadin.flow.data.provider.Query;
+
+import java.util.stream.Stream;
+
+/**
+ * Implemented by caching data providers that can also read rows without caching or prefetching
+ * them. Bulk reads such as exports use it, so they don't evict the pages users are browsing.
+ *
+ * @param <T> the item type
+ * @param <F> the filter type
+ */
+public interface UncachedFetchProvider<T, F> {
+
+    Stream<T> fetchUncached(Query<T, F> query);
+}
@@ -0,0 +1,13 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.cache;
+
+/**
+ * Implemented by filters that want to control how they take part in cache keys. By default a
+ * filter is compared with {@code equals}/{@code hashCode}; mutable filters should return an
+ * immutable snapshot of their state here, so a key captured before a mutation keeps its meaning.
+ */
+@FunctionalInterface
+public interface CacheKeySupplier {
+
+    /** Returns a value with stable {@code equals}/{@code hashCode} describing this filter. */
+    Object cacheKey();
+}
@@ -0,0 +1,22 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.cache;
+
+/**
+ * Point-in-time snapshot of the counters of a {@link PageCache}.
+ *
+ * @param hits number of lookups answered from the cache
+ * @param misses number of lookups that had to go to the backend
+ * @param evictions number of entries dropped because a bound was exceeded or they expired
+ * @param size number of entries currently held
+ * @param weightBytes estimated heap size of the entries currently held
+ */
+public record CacheStats(long hits, long misses, long evictions, int size, long weightBytes) {
+
+    public long requests() {
+        return hits + misses;
+    }
+
+    public double hitRatio() {
+        long requests = requests();
+        return requests == 0 ? 0d : (double) hits / requests;
+    }
+}
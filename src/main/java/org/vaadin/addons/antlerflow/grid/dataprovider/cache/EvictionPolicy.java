@@ -0,0 +1,9 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.cache;
+
+/** Strategy used by {@link PageCache} to pick a victim once one of its bounds is exceeded. */
+public enum EvictionPolicy {
+    /** Evicts the entry that was accessed least recently. */
+    LRU,
+    /** Evicts the entry with the fewest hits, breaking ties by least recent access. */
+    LFU
+}
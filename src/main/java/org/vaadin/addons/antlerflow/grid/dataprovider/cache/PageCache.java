@@ -0,0 +1,172 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * A small, thread-safe, bounded cache for query results. Entries are limited by count and by
+ * estimated weight, optionally expire after a time-to-live, and are evicted according to the
+ * configured {@link EvictionPolicy}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class PageCache<K, V> {
+
+    private final PageCacheConfig config;
+    private final ToLongFunction<? super V> weigher;
+
+    /**
+     * Iteration starts with the least recently used entry. Insertion-ordered, with {@link #get}
+     * moving hits to the end itself, so other lookups leave recency alone.
+     */
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>();
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public PageCache(PageCacheConfig config, ToLongFunction<? super V> weigher) {
+        this.config = Objects.requireNonNull(config, "config");
+        this.weigher = Objects.requireNonNull(weigher, "weigher");
+    }
+
+    public PageCacheConfig getConfig() {
+        return config;
+    }
+
+    /** Returns the cached value for the key, or {@code null} if absent or expired. */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            remove(key, entry);
+            evictions++;
+            misses++;
+            return null;
+        }
+        entries.remove(key);
+        entries.put(key, entry);
+        entry.frequency++;
+        hits++;
+        return entry.value;
+    }
+
+    /** Checks for a live entry without touching recency, frequency or the hit/miss counters. */
+    public synchronized boolean containsKey(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && !entry.isExpired(System.nanoTime());
+    }
+
+    public synchronized void put(K key, V value) {
+        Objects.requireNonNull(key, "key");
+        long entryWeight = Math.max(0L, weigher.applyAsLong(value));
+        Entry<V> previous = entries.remove(key);
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        if (config.getMaxEntries() <= 0 || entryWeight > config.getMaxWeightBytes()) {
+            // Would never fit; caching it would only flush everything else.
+            return;
+        }
+        entries.put(key, new Entry<>(value, entryWeight, config.getTimeToLive()));
+        weight += entryWeight;
+        evictIfNeeded(key);
+    }
+
+    public synchronized void invalidate(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            remove(key, entry);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0L;
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, entries.size(), weight);
+    }
+
+    /** Evicts until within bounds, keeping the entry just added if anything else can go. */
+    private void evictIfNeeded(K added) {
+        if (!isOverBounds()) {
+            return;
+        }
+        purgeExpired();
+        while (isOverBounds() && !entries.isEmpty()) {
+            Map.Entry<K, Entry<V>> victim = selectVictim(added);
+            remove(victim.getKey(), victim.getValue());
+            evictions++;
+        }
+    }
+
+    private boolean isOverBounds() {
+        return entries.size() > config.getMaxEntries() || weight > config.getMaxWeightBytes();
+    }
+
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry<V> entry = it.next().getValue();
+            if (entry.isExpired(now)) {
+                it.remove();
+                weight -= entry.weight;
+                evictions++;
+            }
+        }
+    }
+
+    private Map.Entry<K, Entry<V>> selectVictim(K added) {
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        Map.Entry<K, Entry<V>> victim = it.next();
+        if (config.getEvictionPolicy() == EvictionPolicy.LFU) {
+            // Iteration is least-recent first, so strict comparison keeps LRU as the tie-breaker.
+            // The new entry has no hits yet and would always lose; it only goes if it is alone.
+            while (it.hasNext()) {
+                Map.Entry<K, Entry<V>> candidate = it.next();
+                if (!candidate.getKey().equals(added)
+                        && candidate.getValue().frequency < victim.getValue().frequency) {
+                    victim = candidate;
+                }
+            }
+        }
+        return victim;
+    }
+
+    private void remove(K key, Entry<V> entry) {
+        entries.remove(key);
+        weight -= entry.weight;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+        private final boolean expiring;
+        private final long expiresAt;
+        private long frequency;
+
+        private Entry(V value, long weight, Duration timeToLive) {
+            this.value = value;
+            this.weight = weight;
+            this.expiring = timeToLive != null;
+            this.expiresAt = expiring ? System.nanoTime() + timeToLive.toNanos() : 0L;
+        }
+
+        private boolean isExpired(long now) {
+            // Compare via subtraction: System.nanoTime() may be negative or wrap around.
+            return expiring && now - expiresAt > 0;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.cache;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Bounds and eviction settings of a {@link PageCache}. A {@code null} time-to-live keeps entries
+ * until they are evicted or invalidated.
+ */
+@Data
+@Builder
+public class PageCacheConfig {
+    @Builder.Default private int maxEntries = 16;
+    @Builder.Default private long maxWeightBytes = 8L * 1024 * 1024;
+    @Builder.Default private Duration timeToLive = Duration.ofMinutes(5);
+    @Builder.Default private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
+    /** Rough per-item heap size used to estimate the weight of a cached page. */
+    @Builder.Default private long estimatedItemBytes = 512;
+
+    public static PageCacheConfig defaults() {
+        return builder().build();
+    }
+}
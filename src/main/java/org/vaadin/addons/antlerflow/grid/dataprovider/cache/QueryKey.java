@@ -0,0 +1,130 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.cache;
+
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Structural cache key for a data provider query: filter key, sort descriptor and page
+ * coordinates, with the hash computed once. Keys without paging ({@link #withoutPaging()})
+ * identify the row set itself, e.g. for counts.
+ */
+public final class QueryKey {
+
+    private static final int NO_PAGING = -1;
+
+    private final Object filterKey;
+    private final String[] sortProperties;
+    private final SortDirection[] sortDirections;
+    private final int offset;
+    private final int limit;
+    private final int scopeHash;
+    private final int hash;
+
+    private QueryKey(
+            Object filterKey,
+            String[] sortProperties,
+            SortDirection[] sortDirections,
+            int offset,
+            int limit,
+            int scopeHash) {
+        this.filterKey = filterKey;
+        this.sortProperties = sortProperties;
+        this.sortDirections = sortDirections;
+        this.offset = offset;
+        this.limit = limit;
+        this.scopeHash = scopeHash;
+        this.hash = 31 * (31 * scopeHash + offset) + limit;
+    }
+
+    /**
+     * Creates a key for one page of the row set described by the filter and sort orders.
+     *
+     * @param filter the effective filter; a {@link CacheKeySupplier} contributes its {@code
+     *     cacheKey()} instead of itself
+     */
+    public static QueryKey of(
+            Object filter, List<QuerySortOrder> sortOrders, int offset, int limit) {
+        Object filterKey =
+                filter instanceof CacheKeySupplier supplier ? supplier.cacheKey() : filter;
+        int size = sortOrders == null ? 0 : sortOrders.size();
+        String[] properties = new String[size];
+        SortDirection[] directions = new SortDirection[size];
+        for (int i = 0; i < size; i++) {
+            QuerySortOrder order = sortOrders.get(i);
+            properties[i] = order.getSorted();
+            directions[i] = order.getDirection();
+        }
+        int scopeHash =
+                31 * (31 * Objects.hashCode(filterKey) + Arrays.hashCode(properties))
+                        + Arrays.hashCode(directions);
+        return new QueryKey(filterKey, properties, directions, offset, limit, scopeHash);
+    }
+
+    /** Returns the key of the whole row set this page belongs to. */
+    public QueryKey withoutPaging() {
+        if (offset == NO_PAGING && limit == NO_PAGING) {
+            return this;
+        }
+        return new QueryKey(
+                filterKey, sortProperties, sortDirections, NO_PAGING, NO_PAGING, scopeHash);
+    }
+
+    /** Returns a key for another page of the same row set. */
+    public QueryKey withPage(int offset, int limit) {
+        return new QueryKey(filterKey, sortProperties, sortDirections, offset, limit, scopeHash);
+    }
+
+    /** Whether both keys describe the same row set, regardless of paging. */
+    public boolean sameScope(QueryKey other) {
+        return other != null
+                && scopeHash == other.scopeHash
+                && Objects.equals(filterKey, other.filterKey)
+                && Arrays.equals(sortProperties, other.sortProperties)
+                && Arrays.equals(sortDirections, other.sortDirections);
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof QueryKey other)) {
+            return false;
+        }
+        return hash == other.hash
+                && offset == other.offset
+                && limit == other.limit
+                && sameScope(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryKey{filter="
+                + filterKey
+                + ", sort="
+                + Arrays.toString(sortProperties)
+                + Arrays.toString(sortDirections)
+                + ", offset="
+                + offset
+                + ", limit="
+                + limit
+                + "}";
+    }
+}
@@ -0,0 +1,213 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * An application-scoped cache region shared by the data providers of all sessions. Concurrent
+ * misses for the same key are coalesced: one caller loads the value, the others wait for it.
+ *
+ * <p>Regions are looked up by name, so every provider showing the same query should use the same
+ * region and only those. Cached values are handed to several sessions at once and must be treated
+ * as read-only. Entries expire after the configured time-to-live; after writes to the backend,
+ * call {@link #invalidateRegion(String)}.
+ *
+ * <p>Waiters give up after {@link #setMaxWait(Duration) maxWait} and load the value themselves,
+ * so a hung backend query stalls one request rather than every session showing the page.
+ */
+@Slf4j
+public final class SharedPageCache {
+
+    private static final PageCacheConfig DEFAULT_CONFIG =
+            PageCacheConfig.builder()
+                    .maxEntries(256)
+                    .maxWeightBytes(64L * 1024 * 1024)
+                    .timeToLive(Duration.ofMinutes(1))
+                    .build();
+
+    private static final Map<String, SharedPageCache> REGIONS = new ConcurrentHashMap<>();
+
+    /** Returned by {@link #await} when the loader was cancelled and the caller should retry. */
+    private static final Object RETRY = new Object();
+
+    /** Returned by {@link #await} when the loader is still running after the maximum wait. */
+    private static final Object TIMED_OUT = new Object();
+
+    private final String name;
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /** Bumped on invalidation so loads started before it are not stored. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile PageCache<Object, Weighed> entries;
+
+    private volatile Duration maxWait = Duration.ofSeconds(2);
+
+    private SharedPageCache(String name, PageCacheConfig config) {
+        this.name = name;
+        this.entries = new PageCache<>(config, Weighed::weight);
+    }
+
+    /** Returns the region with the given name, creating it with default bounds if needed. */
+    public static SharedPageCache region(String name) {
+        Objects.requireNonNull(name, "name");
+        return REGIONS.computeIfAbsent(name, n -> new SharedPageCache(n, DEFAULT_CONFIG));
+    }
+
+    /**
+     * Sets the bounds of the named region, creating it if needed. Entries of an existing region
+     * are dropped.
+     */
+    public static SharedPageCache configure(String name, PageCacheConfig config) {
+        Objects.requireNonNull(config, "config");
+        SharedPageCache region = region(name);
+        region.generation.incrementAndGet();
+        region.inFlight.clear();
+        region.entries = new PageCache<>(config, Weighed::weight);
+        return region;
+    }
+
+    /** Drops every entry of the named region; a no-op if the region does not exist. */
+    public static void invalidateRegion(String name) {
+        SharedPageCache region = REGIONS.get(name);
+        if (region != null) {
+            region.invalidateAll();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PageCacheConfig getConfig() {
+        return entries.getConfig();
+    }
+
+    public CacheStats getStats() {
+        return entries.getStats();
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * Sets how long a caller waits for another caller loading the same key before loading it
+     * itself. Callers hold their session lock while waiting. Pass {@code null} to wait without a
+     * limit.
+     */
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Returns the cached value for the key, or loads it. If another thread is already loading the
+     * same key, waits up to {@link #getMaxWait()} for its result instead of calling the loader.
+     *
+     * @param weigher estimates the heap size of a loaded value
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(Object key, Supplier<? extends V> loader, ToLongFunction<? super V> weigher) {
+        Objects.requireNonNull(key, "key");
+        while (true) {
+            Weighed cached = entries.get(key);
+            if (cached != null) {
+                return (V) cached.value();
+            }
+
+            CompletableFuture<Object> flight = new CompletableFuture<>();
+            CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+            if (leader != null) {
+                Object value = await(leader, maxWait);
+                if (value == TIMED_OUT) {
+                    // Load alongside the leader, which stays registered for later callers.
+                    return load(key, new CompletableFuture<>(), loader, weigher);
+                }
+                if (value != RETRY) {
+                    return (V) value;
+                }
+                continue;
+            }
+            try {
+                return load(key, flight, loader, weigher);
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        }
+    }
+
+    /** Drops the entry for one key. */
+    public void invalidate(Object key) {
+        entries.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        inFlight.clear();
+        entries.invalidateAll();
+    }
+
+    private <V> V load(
+            Object key,
+            CompletableFuture<Object> flight,
+            Supplier<? extends V> loader,
+            ToLongFunction<? super V> weigher) {
+        long loadGeneration = generation.get();
+        try {
+            // A previous leader may have stored the value between our miss and our registration.
+            Weighed cached = entries.containsKey(key) ? entries.get(key) : null;
+            @SuppressWarnings("unchecked")
+            V value = cached != null ? (V) cached.value() : loader.get();
+            if (cached == null && generation.get() == loadGeneration) {
+                entries.put(key, new Weighed(value, weigher.applyAsLong(value)));
+            }
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(CompletableFuture<Object> flight, Duration maxWait) {
+        try {
+            return maxWait == null
+                    ? flight.get()
+                    : flight.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.debug("Shared load of region {} still running after {}", name, maxWait);
+            return TIMED_OUT;
+        } catch (CancellationException e) {
+            // get() rethrows a cancellation as is rather than wrapping it. The loading caller was
+            // superseded; that says nothing about this caller.
+            return RETRY;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a shared load");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    private record Weighed(Object value, long weight) {}
+}
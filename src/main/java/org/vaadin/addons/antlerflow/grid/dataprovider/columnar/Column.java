@@ -0,0 +1,528 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.columnar;
+
+import com.vaadin.flow.function.ValueProvider;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * One column of a {@link ColumnarDataProvider}: the values of a single property for all rows, in
+ * a primitive buffer (heap or direct) or dictionary-encoded. Rows are addressed by index.
+ */
+abstract class Column {
+
+    /** Tests a row by index without materializing it. */
+    @FunctionalInterface
+    interface RowMatcher {
+        boolean matches(int row);
+    }
+
+    /** Fills a column row by row while the provider is built. */
+    interface Loader<T> {
+        void load(int row, T item);
+
+        Column finish();
+    }
+
+    private final String name;
+    private final BitSet nulls;
+
+    Column(String name, BitSet nulls) {
+        this.name = name;
+        this.nulls = nulls;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    boolean hasNulls() {
+        return !nulls.isEmpty();
+    }
+
+    /** Returns the boxed value of the row, or {@code null}. */
+    abstract Object get(int row);
+
+    /** Compares two rows; {@code null} values sort first. */
+    int compare(int a, int b) {
+        boolean aNull = isNull(a);
+        boolean bNull = isNull(b);
+        if (aNull || bNull) {
+            return aNull == bNull ? 0 : aNull ? -1 : 1;
+        }
+        return compareValues(a, b);
+    }
+
+    abstract int compareValues(int a, int b);
+
+    /**
+     * Whether {@link #sortKey(int)} orders all rows, nulls included, so a single-column sort can
+     * run on packed primitive keys.
+     */
+    boolean hasSortKey() {
+        return false;
+    }
+
+    int sortKey(int row) {
+        throw new UnsupportedOperationException();
+    }
+
+    RowMatcher equalTo(Object value) {
+        if (value == null) {
+            return this::isNull;
+        }
+        return row -> !isNull(row) && value.equals(get(row));
+    }
+
+    /** Matches values within the inclusive bounds; a {@code null} bound is open. */
+    abstract RowMatcher between(Object from, Object to);
+
+    /** Matches non-null values whose string form passes the predicate. */
+    RowMatcher text(Predicate<String> predicate) {
+        return row -> !isNull(row) && predicate.test(String.valueOf(get(row)));
+    }
+
+    static IntBuffer ints(int size, boolean offHeap) {
+        return offHeap ? direct(size, Integer.BYTES).asIntBuffer() : IntBuffer.allocate(size);
+    }
+
+    static LongBuffer longs(int size, boolean offHeap) {
+        return offHeap ? direct(size, Long.BYTES).asLongBuffer() : LongBuffer.allocate(size);
+    }
+
+    static DoubleBuffer doubles(int size, boolean offHeap) {
+        return offHeap
+                ? direct(size, Double.BYTES).asDoubleBuffer()
+                : DoubleBuffer.allocate(size);
+    }
+
+    private static ByteBuffer direct(int size, int bytes) {
+        return ByteBuffer.allocateDirect(Math.multiplyExact(size, bytes))
+                .order(ByteOrder.nativeOrder());
+    }
+
+    private static long lowerBound(Object from) {
+        return from == null ? Long.MIN_VALUE : ((Number) from).longValue();
+    }
+
+    private static long upperBound(Object to) {
+        return to == null ? Long.MAX_VALUE : ((Number) to).longValue();
+    }
+
+    static final class IntColumn extends Column {
+        private final IntBuffer values;
+
+        private IntColumn(String name, BitSet nulls, IntBuffer values) {
+            super(name, nulls);
+            this.values = values;
+        }
+
+        int getInt(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        Object get(int row) {
+            return isNull(row) ? null : values.get(row);
+        }
+
+        @Override
+        int compareValues(int a, int b) {
+            return Integer.compare(values.get(a), values.get(b));
+        }
+
+        @Override
+        boolean hasSortKey() {
+            return !hasNulls();
+        }
+
+        @Override
+        int sortKey(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        RowMatcher equalTo(Object value) {
+            if (value == null) {
+                return this::isNull;
+            }
+            long expected = ((Number) value).longValue();
+            return row -> values.get(row) == expected && !isNull(row);
+        }
+
+        @Override
+        RowMatcher between(Object from, Object to) {
+            long lower = lowerBound(from);
+            long upper = upperBound(to);
+            return row -> {
+                int value = values.get(row);
+                return value >= lower && value <= upper && !isNull(row);
+            };
+        }
+
+        static <T> Loader<T> loader(
+                String name, ValueProvider<T, ? extends Number> getter, int size, boolean offHeap) {
+            IntBuffer values = ints(size, offHeap);
+            BitSet nulls = new BitSet();
+            return new Loader<>() {
+                @Override
+                public void load(int row, T item) {
+                    Number value = getter.apply(item);
+                    if (value == null) {
+                        nulls.set(row);
+                    } else {
+                        values.put(row, value.intValue());
+                    }
+                }
+
+                @Override
+                public Column finish() {
+                    return new IntColumn(name, nulls, values);
+                }
+            };
+        }
+    }
+
+    static final class LongColumn extends Column {
+        private final LongBuffer values;
+
+        private LongColumn(String name, BitSet nulls, LongBuffer values) {
+            super(name, nulls);
+            this.values = values;
+        }
+
+        long getLong(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        Object get(int row) {
+            return isNull(row) ? null : values.get(row);
+        }
+
+        @Override
+        int compareValues(int a, int b) {
+            return Long.compare(values.get(a), values.get(b));
+        }
+
+        @Override
+        RowMatcher equalTo(Object value) {
+            if (value == null) {
+                return this::isNull;
+            }
+            long expected = ((Number) value).longValue();
+            return row -> values.get(row) == expected && !isNull(row);
+        }
+
+        @Override
+        RowMatcher between(Object from, Object to) {
+            long lower = lowerBound(from);
+            long upper = upperBound(to);
+            return row -> {
+                long value = values.get(row);
+                return value >= lower && value <= upper && !isNull(row);
+            };
+        }
+
+        static <T> Loader<T> loader(
+                String name, ValueProvider<T, ? extends Number> getter, int size, boolean offHeap) {
+            LongBuffer values = longs(size, offHeap);
+            BitSet nulls = new BitSet();
+            return new Loader<>() {
+                @Override
+                public void load(int row, T item) {
+                    Number value = getter.apply(item);
+                    if (value == null) {
+                        nulls.set(row);
+                    } else {
+                        values.put(row, value.longValue());
+                    }
+                }
+
+                @Override
+                public Column finish() {
+                    return new LongColumn(name, nulls, values);
+                }
+            };
+        }
+    }
+
+    static final class DoubleColumn extends Column {
+        private final DoubleBuffer values;
+
+        private DoubleColumn(String name, BitSet nulls, DoubleBuffer values) {
+            super(name, nulls);
+            this.values = values;
+        }
+
+        double getDouble(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        Object get(int row) {
+            return isNull(row) ? null : values.get(row);
+        }
+
+        @Override
+        int compareValues(int a, int b) {
+            return Double.compare(values.get(a), values.get(b));
+        }
+
+        @Override
+        RowMatcher equalTo(Object value) {
+            if (value == null) {
+                return this::isNull;
+            }
+            double expected = ((Number) value).doubleValue();
+            return row -> Double.compare(values.get(row), expected) == 0 && !isNull(row);
+        }
+
+        @Override
+        RowMatcher between(Object from, Object to) {
+            double lower =
+                    from == null ? Double.NEGATIVE_INFINITY : ((Number) from).doubleValue();
+            double upper = to == null ? Double.POSITIVE_INFINITY : ((Number) to).doubleValue();
+            return row -> {
+                double value = values.get(row);
+                return value >= lower && value <= upper && !isNull(row);
+            };
+        }
+
+        static <T> Loader<T> loader(
+                String name, ValueProvider<T, ? extends Number> getter, int size, boolean offHeap) {
+            DoubleBuffer values = doubles(size, offHeap);
+            BitSet nulls = new BitSet();
+            return new Loader<>() {
+                @Override
+                public void load(int row, T item) {
+                    Number value = getter.apply(item);
+                    if (value == null) {
+                        nulls.set(row);
+                    } else {
+                        values.put(row, value.doubleValue());
+                    }
+                }
+
+                @Override
+                public Column finish() {
+                    return new DoubleColumn(name, nulls, values);
+                }
+            };
+        }
+    }
+
+    static final class BooleanColumn extends Column {
+        private final BitSet values;
+
+        private BooleanColumn(String name, BitSet nulls, BitSet values) {
+            super(name, nulls);
+            this.values = values;
+        }
+
+        boolean getBoolean(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        Object get(int row) {
+            return isNull(row) ? null : values.get(row);
+        }
+
+        @Override
+        int compareValues(int a, int b) {
+            return Boolean.compare(values.get(a), values.get(b));
+        }
+
+        @Override
+        boolean hasSortKey() {
+            return true;
+        }
+
+        @Override
+        int sortKey(int row) {
+            return isNull(row) ? -1 : values.get(row) ? 1 : 0;
+        }
+
+        @Override
+        RowMatcher between(Object from, Object to) {
+            int lower = from == null ? 0 : (Boolean) from ? 1 : 0;
+            int upper = to == null ? 1 : (Boolean) to ? 1 : 0;
+            return row -> {
+                int key = sortKey(row);
+                return key >= lower && key <= upper;
+            };
+        }
+
+        static <T> Loader<T> loader(String name, ValueProvider<T, Boolean> getter) {
+            BitSet values = new BitSet();
+            BitSet nulls = new BitSet();
+            return new Loader<>() {
+                @Override
+                public void load(int row, T item) {
+                    Boolean value = getter.apply(item);
+                    if (value == null) {
+                        nulls.set(row);
+                    } else if (value) {
+                        values.set(row);
+                    }
+                }
+
+                @Override
+                public Column finish() {
+                    return new BooleanColumn(name, nulls, values);
+                }
+            };
+        }
+    }
+
+    /**
+     * Stores each row as an index into a sorted array of the distinct values, so repeated values
+     * are held once, rows compare as ints and text filters run once per distinct value.
+     */
+    static final class DictionaryColumn extends Column {
+        private static final int NULL_CODE = -1;
+
+        private final Object[] dictionary;
+        private final IntBuffer codes;
+
+        private DictionaryColumn(String name, Object[] dictionary, IntBuffer codes) {
+            super(name, new BitSet());
+            this.dictionary = dictionary;
+            this.codes = codes;
+        }
+
+        @Override
+        boolean isNull(int row) {
+            return codes.get(row) == NULL_CODE;
+        }
+
+        @Override
+        Object get(int row) {
+            int code = codes.get(row);
+            return code == NULL_CODE ? null : dictionary[code];
+        }
+
+        @Override
+        int compare(int a, int b) {
+            return Integer.compare(codes.get(a), codes.get(b));
+        }
+
+        @Override
+        int compareValues(int a, int b) {
+            return compare(a, b);
+        }
+
+        @Override
+        boolean hasSortKey() {
+            return true;
+        }
+
+        @Override
+        int sortKey(int row) {
+            return codes.get(row);
+        }
+
+        @Override
+        RowMatcher equalTo(Object value) {
+            int code = value == null ? NULL_CODE : Arrays.binarySearch(dictionary, value);
+            if (value != null && code < 0) {
+                return row -> false;
+            }
+            return row -> codes.get(row) == code;
+        }
+
+        @Override
+        RowMatcher between(Object from, Object to) {
+            int lower = from == null ? 0 : insertionPoint(from, false);
+            int upper = to == null ? dictionary.length - 1 : insertionPoint(to, true);
+            return row -> {
+                int code = codes.get(row);
+                return code >= lower && code <= upper;
+            };
+        }
+
+        @Override
+        RowMatcher text(Predicate<String> predicate) {
+            BitSet matching = new BitSet(dictionary.length);
+            for (int code = 0; code < dictionary.length; code++) {
+                if (predicate.test(String.valueOf(dictionary[code]))) {
+                    matching.set(code);
+                }
+            }
+            return row -> {
+                int code = codes.get(row);
+                return code != NULL_CODE && matching.get(code);
+            };
+        }
+
+        /** Index of the first entry at least {@code value}, or of the last one at most it. */
+        private int insertionPoint(Object value, boolean atMost) {
+            int index = Arrays.binarySearch(dictionary, value);
+            if (index >= 0) {
+                return index;
+            }
+            return atMost ? -index - 2 : -index - 1;
+        }
+
+        static <T> Loader<T> loader(
+                String name,
+                ValueProvider<T, ? extends Comparable<?>> getter,
+                int size,
+                boolean offHeap) {
+            IntBuffer codes = ints(size, offHeap);
+            Map<Object, Integer> seen = new HashMap<>();
+            return new Loader<>() {
+                @Override
+                public void load(int row, T item) {
+                    Object value = getter.apply(item);
+                    int code =
+                            value == null
+                                    ? NULL_CODE
+                                    : seen.computeIfAbsent(value, v -> seen.size());
+                    codes.put(row, code);
+                }
+
+                @Override
+                public Column finish() {
+                    // Codes were handed out in arrival order; renumber them in value order.
+                    Object[] dictionary = new Object[seen.size()];
+                    seen.forEach((value, code) -> dictionary[code] = value);
+                    Integer[] order = new Integer[dictionary.length];
+                    Arrays.setAll(order, i -> i);
+                    Arrays.sort(order, (a, b) -> compareNatural(dictionary[a], dictionary[b]));
+                    int[] remap = new int[dictionary.length];
+                    Object[] sorted = new Object[dictionary.length];
+                    for (int i = 0; i < order.length; i++) {
+                        remap[order[i]] = i;
+                        sorted[i] = dictionary[order[i]];
+                    }
+                    for (int row = 0; row < size; row++) {
+                        int code = codes.get(row);
+                        if (code != NULL_CODE) {
+                            codes.put(row, remap[code]);
+                        }
+                    }
+                    return new DictionaryColumn(name, sorted, codes);
+                }
+            };
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static int compareNatural(Object a, Object b) {
+            return ((Comparable) a).compareTo(b);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.columnar;
+
+import com.vaadin.flow.function.SerializablePredicate;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A filter of a {@link ColumnarDataProvider}, evaluated on the column values without building
+ * items. Filters are values: equal filters share the provider's cached row order.
+ */
+public sealed interface ColumnFilter extends Serializable {
+
+    /** Matches rows whose value equals {@code value}; {@code null} matches missing values. */
+    static ColumnFilter eq(String column, Object value) {
+        return new Eq(column, value);
+    }
+
+    /** Matches rows whose value lies within the inclusive bounds; a {@code null} bound is open. */
+    static ColumnFilter between(String column, Object from, Object to) {
+        return new Between(column, from, to);
+    }
+
+    /** Matches rows whose value contains the text, ignoring case. */
+    static ColumnFilter contains(String column, String text) {
+        return new Contains(column, text);
+    }
+
+    /** Matches rows whose value, as a string, passes the predicate. */
+    static ColumnFilter matches(String column, SerializablePredicate<String> predicate) {
+        return new Matches(column, predicate);
+    }
+
+    static ColumnFilter isNull(String column) {
+        return new Eq(column, null);
+    }
+
+    static ColumnFilter not(ColumnFilter filter) {
+        return new Not(filter);
+    }
+
+    /**
+     * Matches rows passing all of the filters; {@code null} entries are ignored, and {@code null}
+     * is returned if none is left.
+     */
+    static ColumnFilter and(ColumnFilter... filters) {
+        List<ColumnFilter> present = Arrays.stream(filters).filter(Objects::nonNull).toList();
+        if (present.size() <= 1) {
+            return present.isEmpty() ? null : present.get(0);
+        }
+        return new And(present);
+    }
+
+    /**
+     * Matches rows passing any of the filters; {@code null} entries are ignored, and {@code null}
+     * is returned if none is left.
+     */
+    static ColumnFilter or(ColumnFilter... filters) {
+        List<ColumnFilter> present = Arrays.stream(filters).filter(Objects::nonNull).toList();
+        if (present.size() <= 1) {
+            return present.isEmpty() ? null : present.get(0);
+        }
+        return new Or(present);
+    }
+
+    record Eq(String column, Object value) implements ColumnFilter {
+        public Eq {
+            Objects.requireNonNull(column, "column");
+        }
+    }
+
+    record Between(String column, Object from, Object to) implements ColumnFilter {
+        public Between {
+            Objects.requireNonNull(column, "column");
+        }
+    }
+
+    record Contains(String column, String text) implements ColumnFilter {
+        public Contains {
+            Objects.requireNonNull(column, "column");
+            Objects.requireNonNull(text, "text");
+        }
+    }
+
+    record Matches(String column, SerializablePredicate<String> predicate)
+            implements ColumnFilter {
+        public Matches {
+            Objects.requireNonNull(column, "column");
+            Objects.requireNonNull(predicate, "predicate");
+        }
+    }
+
+    record Not(ColumnFilter filter) implements ColumnFilter {
+        public Not {
+            Objects.requireNonNull(filter, "filter");
+        }
+    }
+
+    record And(List<ColumnFilter> filters) implements ColumnFilter {
+        public And {
+            filters = List.copyOf(filters);
+        }
+    }
+
+    record Or(List<ColumnFilter> filters) implements ColumnFilter {
+        public Or {
+            filters = List.copyOf(filters);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.columnar;
+
+import com.vaadin.flow.data.provider.AbstractBackEndDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.ValueProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.vaadin.addons.antlerflow.grid.dataprovider.cache.QueryKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * An in-memory data provider for large, read-mostly datasets. Instead of keeping the items, it
+ * copies the registered properties into one primitive array per column (optionally off-heap), with
+ * strings and other comparable values dictionary-encoded. Filters and sorts run on the columns,
+ * and items are built by the row factory only for the rows of the requested page.
+ *
+ * <pre>{@code
+ * ColumnarDataProvider<Person> dataProvider =
+ *         ColumnarDataProvider.<Person>builder()
+ *                 .longColumn("id", Person::getId)
+ *                 .stringColumn("lastName", Person::getLastName)
+ *                 .intColumn("age", Person::getAge)
+ *                 .id(Person::getId)
+ *                 .build(people, row -> new Person(row.getLong("id"), row.getString("lastName"),
+ *                         row.getInt("age")));
+ * }</pre>
+ *
+ * Grid columns sort by the column whose name equals their sort property. The data is fixed once
+ * built; build a new provider to replace it.
+ *
+ * @param <T> the type of the data items to provide
+ */
+@Slf4j
+public class ColumnarDataProvider<T> extends AbstractBackEndDataProvider<T, ColumnFilter> {
+
+    private final Map<String, Column> columns;
+    private final int rowCount;
+    private final SerializableFunction<ColumnarRow, T> rowFactory;
+    private final ValueProvider<T, ?> idGetter;
+
+    private volatile ColumnFilter filter;
+
+    /** Rows matching the last filter, in the last sort order. */
+    private volatile View view;
+
+    private ColumnarDataProvider(
+            Map<String, Column> columns,
+            int rowCount,
+            SerializableFunction<ColumnarRow, T> rowFactory,
+            ValueProvider<T, ?> idGetter) {
+        this.columns = Collections.unmodifiableMap(columns);
+        this.rowCount = rowCount;
+        this.rowFactory = rowFactory;
+        this.idGetter = idGetter;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public Set<String> getColumnNames() {
+        return columns.keySet();
+    }
+
+    public ColumnFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Sets a filter applied in addition to the query filter and refreshes the listening
+     * components; {@code null} clears it.
+     */
+    public void setFilter(ColumnFilter filter) {
+        this.filter = filter;
+        refreshAll();
+    }
+
+    @Override
+    public Object getId(T item) {
+        // Items are built anew for every page, so identity can't tell them apart.
+        return idGetter != null ? idGetter.apply(item) : super.getId(item);
+    }
+
+    @Override
+    protected Stream<T> fetchFromBackEnd(Query<T, ColumnFilter> query) {
+        int[] rows = resolve(query);
+        int from = Math.min(query.getOffset(), rows.length);
+        int to = (int) Math.min((long) from + query.getLimit(), rows.length);
+        ColumnarRow row = new ColumnarRow(columns);
+        List<T> items = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            items.add(rowFactory.apply(row.at(rows[i])));
+        }
+        return items.stream();
+    }
+
+    @Override
+    protected int sizeInBackEnd(Query<T, ColumnFilter> query) {
+        return resolve(query).length;
+    }
+
+    /** Returns the matching row indexes in sort order, reusing the last result if it fits. */
+    private int[] resolve(Query<T, ColumnFilter> query) {
+        ColumnFilter effective = ColumnFilter.and(filter, query.getFilter().orElse(null));
+        List<QuerySortOrder> sortOrders = knownSortOrders(query.getSortOrders());
+        QueryKey key = QueryKey.of(effective, sortOrders, 0, 0).withoutPaging();
+        View current = view;
+        if (current != null && current.key().equals(key)) {
+            return current.rows();
+        }
+        long start = System.nanoTime();
+        int[] rows = filter(effective);
+        sort(rows, sortOrders);
+        log.debug(
+                "Resolved {} of {} rows in {} ms",
+                rows.length,
+                rowCount,
+                (System.nanoTime() - start) / 1_000_000);
+        view = new View(key, rows);
+        return rows;
+    }
+
+    private List<QuerySortOrder> knownSortOrders(List<QuerySortOrder> sortOrders) {
+        if (sortOrders == null || sortOrders.isEmpty()) {
+            return List.of();
+        }
+        List<QuerySortOrder> known = new ArrayList<>(sortOrders.size());
+        for (QuerySortOrder order : sortOrders) {
+            if (columns.containsKey(order.getSorted())) {
+                known.add(order);
+            } else {
+                log.debug("Ignoring sort by unknown column {}", order.getSorted());
+            }
+        }
+        return known;
+    }
+
+    private int[] filter(ColumnFilter effective) {
+        int[] rows = new int[rowCount];
+        if (effective == null) {
+            Arrays.setAll(rows, i -> i);
+            return rows;
+        }
+        Column.RowMatcher matcher = compile(effective);
+        int matches = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (matcher.matches(row)) {
+                rows[matches++] = row;
+            }
+        }
+        return matches == rowCount ? rows : Arrays.copyOf(rows, matches);
+    }
+
+    private Column.RowMatcher compile(ColumnFilter filter) {
+        return switch (filter) {
+            case ColumnFilter.Eq eq -> column(eq.column()).equalTo(eq.value());
+            case ColumnFilter.Between between ->
+                    column(between.column()).between(between.from(), between.to());
+            case ColumnFilter.Contains contains -> {
+                String needle = contains.text().toLowerCase(Locale.ROOT);
+                yield column(contains.column())
+                        .text(value -> value.toLowerCase(Locale.ROOT).contains(needle));
+            }
+            case ColumnFilter.Matches matches ->
+                    column(matches.column()).text(matches.predicate());
+            case ColumnFilter.Not not -> {
+                Column.RowMatcher negated = compile(not.filter());
+                yield row -> !negated.matches(row);
+            }
+            case ColumnFilter.And and -> {
+                Column.RowMatcher[] all = compileAll(and.filters());
+                yield row -> {
+                    for (Column.RowMatcher matcher : all) {
+                        if (!matcher.matches(row)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                };
+            }
+            case ColumnFilter.Or or -> {
+                Column.RowMatcher[] any = compileAll(or.filters());
+                yield row -> {
+                    for (Column.RowMatcher matcher : any) {
+                        if (matcher.matches(row)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                };
+            }
+        };
+    }
+
+    private Column.RowMatcher[] compileAll(List<ColumnFilter> filters) {
+        return filters.stream().map(this::compile).toArray(Column.RowMatcher[]::new);
+    }
+
+    private void sort(int[] rows, List<QuerySortOrder> sortOrders) {
+        if (sortOrders.isEmpty()) {
+            return;
+        }
+        Column first = column(sortOrders.get(0).getSorted());
+        if (sortOrders.size() == 1 && first.hasSortKey()) {
+            // Pack key and row into one long: a primitive sort, and ties stay in row order.
+            boolean descending = sortOrders.get(0).getDirection() == SortDirection.DESCENDING;
+            long[] packed = new long[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                int key = first.sortKey(rows[i]);
+                packed[i] = ((long) (descending ? ~key : key) << 32) | rows[i];
+            }
+            Arrays.sort(packed);
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = (int) packed[i];
+            }
+            return;
+        }
+
+        Column[] sortColumns = new Column[sortOrders.size()];
+        boolean[] descending = new boolean[sortOrders.size()];
+        for (int i = 0; i < sortColumns.length; i++) {
+            sortColumns[i] = column(sortOrders.get(i).getSorted());
+            descending[i] = sortOrders.get(i).getDirection() == SortDirection.DESCENDING;
+        }
+        IntSort.sort(
+                rows,
+                (a, b) -> {
+                    for (int i = 0; i < sortColumns.length; i++) {
+                        int result = sortColumns[i].compare(a, b);
+                        if (result != 0) {
+                            return descending[i] ? -result : result;
+                        }
+                    }
+                    return 0;
+                });
+    }
+
+    private Column column(String name) {
+        Column column = columns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Unknown column: " + name);
+        }
+        return column;
+    }
+
+    private record View(QueryKey key, int[] rows) {}
+
+    /**
+     * Registers the columns to extract. Numeric columns accept boxed getters so {@code null}
+     * values are kept apart from zero.
+     *
+     * @param <T> the item type
+     */
+    public static final class Builder<T> {
+
+        @FunctionalInterface
+        private interface LoaderFactory<T> {
+            Column.Loader<T> create(int size, boolean offHeap);
+        }
+
+        private final Map<String, LoaderFactory<T>> columns = new LinkedHashMap<>();
+        private boolean offHeap;
+        private ValueProvider<T, ?> idGetter;
+
+        private Builder() {}
+
+        public Builder<T> intColumn(String name, ValueProvider<T, ? extends Number> getter) {
+            Objects.requireNonNull(getter, "getter");
+            return add(name, (size, direct) -> Column.IntColumn.loader(name, getter, size, direct));
+        }
+
+        public Builder<T> longColumn(String name, ValueProvider<T, ? extends Number> getter) {
+            Objects.requireNonNull(getter, "getter");
+            return add(
+                    name, (size, direct) -> Column.LongColumn.loader(name, getter, size, direct));
+        }
+
+        public Builder<T> doubleColumn(String name, ValueProvider<T, ? extends Number> getter) {
+            Objects.requireNonNull(getter, "getter");
+            return add(
+                    name,
+                    (size, direct) -> Column.DoubleColumn.loader(name, getter, size, direct));
+        }
+
+        public Builder<T> booleanColumn(String name, ValueProvider<T, Boolean> getter) {
+            Objects.requireNonNull(getter, "getter");
+            return add(name, (size, direct) -> Column.BooleanColumn.loader(name, getter));
+        }
+
+        /** Adds a dictionary-encoded string column. */
+        public Builder<T> stringColumn(String name, ValueProvider<T, String> getter) {
+            return dictionaryColumn(name, getter);
+        }
+
+        /**
+         * Adds a dictionary-encoded column of any comparable type, e.g. enums or dates. Pays off
+         * when values repeat.
+         */
+        public <V extends Comparable<? super V>> Builder<T> dictionaryColumn(
+                String name, ValueProvider<T, V> getter) {
+            Objects.requireNonNull(getter, "getter");
+            return add(
+                    name,
+                    (size, direct) -> Column.DictionaryColumn.loader(name, getter, size, direct));
+        }
+
+        /** Stores numeric columns and dictionary codes in direct buffers outside the heap. */
+        public Builder<T> offHeap(boolean offHeap) {
+            this.offHeap = offHeap;
+            return this;
+        }
+
+        /** Identifies items, e.g. for selection; needed unless T has value-based equals. */
+        public Builder<T> id(ValueProvider<T, ?> idGetter) {
+            this.idGetter = idGetter;
+            return this;
+        }
+
+        /**
+         * Copies the registered columns out of the items. The items are not kept.
+         *
+         * @param rowFactory builds an item from the columns of one row
+         */
+        public ColumnarDataProvider<T> build(
+                Collection<? extends T> items, SerializableFunction<ColumnarRow, T> rowFactory) {
+            Objects.requireNonNull(items, "items");
+            Objects.requireNonNull(rowFactory, "rowFactory");
+            int size = items.size();
+            List<Column.Loader<T>> loaders = new ArrayList<>(columns.size());
+            columns.values().forEach(factory -> loaders.add(factory.create(size, offHeap)));
+            int row = 0;
+            for (T item : items) {
+                for (Column.Loader<T> loader : loaders) {
+                    loader.load(row, item);
+                }
+                row++;
+            }
+            Map<String, Column> built = new LinkedHashMap<>();
+            for (Column.Loader<T> loader : loaders) {
+                Column column = loader.finish();
+                built.put(column.getName(), column);
+            }
+            return new ColumnarDataProvider<>(built, size, rowFactory, idGetter);
+        }
+
+        private Builder<T> add(String name, LoaderFactory<T> factory) {
+            Objects.requireNonNull(name, "name");
+            if (columns.putIfAbsent(name, factory) != null) {
+                throw new IllegalArgumentException("Duplicate column: " + name);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.columnar;
+
+import java.util.Map;
+
+/**
+ * Read access to one row of a {@link ColumnarDataProvider}, handed to the row factory that builds
+ * the item. The instance is reused for the next row, so do not keep it.
+ *
+ * <p>The primitive getters return {@code 0} or {@code false} for missing values; use {@link
+ * #isNull(String)} or {@link #get(String)} for nullable columns.
+ */
+public final class ColumnarRow {
+
+    private final Map<String, Column> columns;
+    private int index;
+
+    ColumnarRow(Map<String, Column> columns) {
+        this.columns = columns;
+    }
+
+    ColumnarRow at(int index) {
+        this.index = index;
+        return this;
+    }
+
+    /** Returns the position of the row in the data the provider was built from. */
+    public int getIndex() {
+        return index;
+    }
+
+    public boolean isNull(String column) {
+        return column(column).isNull(index);
+    }
+
+    public int getInt(String column) {
+        return column(column, Column.IntColumn.class).getInt(index);
+    }
+
+    public long getLong(String column) {
+        Column values = column(column);
+        if (values instanceof Column.IntColumn ints) {
+            return ints.getInt(index);
+        }
+        return column(column, Column.LongColumn.class).getLong(index);
+    }
+
+    public double getDouble(String column) {
+        return column(column, Column.DoubleColumn.class).getDouble(index);
+    }
+
+    public boolean getBoolean(String column) {
+        return column(column, Column.BooleanColumn.class).getBoolean(index);
+    }
+
+    public String getString(String column) {
+        Object value = get(column);
+        return value != null ? value.toString() : null;
+    }
+
+    /** Returns the boxed value, or {@code null} if missing. */
+    public Object get(String column) {
+        return column(column).get(index);
+    }
+
+    public <V> V get(String column, Class<V> type) {
+        return type.cast(get(column));
+    }
+
+    private Column column(String name) {
+        Column column = columns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Unknown column: " + name);
+        }
+        return column;
+    }
+
+    private <C extends Column> C column(String name, Class<C> type) {
+        Column column = column(name);
+        if (!type.isInstance(column)) {
+            throw new IllegalArgumentException(
+                    "Column " + name + " is not a " + type.getSimpleName());
+        }
+        return type.cast(column);
+    }
+}
@@ -0,0 +1,54 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.columnar;
+
+/** Stable merge sort of row indexes by a comparator on indexes, without boxing. */
+final class IntSort {
+
+    @FunctionalInterface
+    interface IntComparator {
+        int compare(int a, int b);
+    }
+
+    private static final int INSERTION_THRESHOLD = 32;
+
+    private IntSort() {}
+
+    static void sort(int[] rows, IntComparator comparator) {
+        int[] buffer = rows.clone();
+        mergeSort(buffer, rows, 0, rows.length, comparator);
+    }
+
+    /** Sorts {@code src[from, to)} into {@code dst}; both start with the same contents. */
+    private static void mergeSort(
+            int[] src, int[] dst, int from, int to, IntComparator comparator) {
+        if (to - from <= INSERTION_THRESHOLD) {
+            insertionSort(dst, from, to, comparator);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(dst, src, from, mid, comparator);
+        mergeSort(dst, src, mid, to, comparator);
+        if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, from, dst, from, to - from);
+            return;
+        }
+        for (int i = from, left = from, right = mid; i < to; i++) {
+            if (right >= to || left < mid && comparator.compare(src[left], src[right]) <= 0) {
+                dst[i] = src[left++];
+            } else {
+                dst[i] = src[right++];
+            }
+        }
+    }
+
+    private static void insertionSort(int[] rows, int from, int to, IntComparator comparator) {
+        for (int i = from + 1; i < to; i++) {
+            int row = rows[i];
+            int j = i - 1;
+            while (j >= from && comparator.compare(rows[j], row) > 0) {
+                rows[j + 1] = rows[j];
+                j--;
+            }
+            rows[j + 1] = row;
+        }
+    }
+}
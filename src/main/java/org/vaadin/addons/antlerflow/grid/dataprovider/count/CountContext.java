@@ -0,0 +1,32 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.count;
+
+import java.util.Optional;
+
+/**
+ * What a {@link CountStrategy} may ask the data provider about the query being counted. Every
+ * method may hit the backend, so strategies should call only what they need.
+ *
+ * @param <F> the filter type
+ */
+public interface CountContext<F> {
+
+    Optional<F> getFilter();
+
+    /** Offset of the page the count is requested for. */
+    long getOffset();
+
+    /** Page size of the page the count is requested for. */
+    int getLimit();
+
+    /** Runs the exact count for the filter. */
+    long exactCount();
+
+    /** Whether at least {@code offset + 1} rows match the filter. */
+    boolean hasRowAt(long offset);
+
+    /** Number of rows on the current page. */
+    int getPageRowCount();
+
+    /** Whether rows exist after the current page. */
+    boolean hasNextPage();
+}
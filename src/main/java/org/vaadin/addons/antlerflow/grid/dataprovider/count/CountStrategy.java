@@ -0,0 +1,53 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.count;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+/**
+ * Decides how a data provider determines the total number of rows. For very large tables an exact
+ * {@code COUNT(*)} is rarely worth its cost; the strategies below trade accuracy for speed and are
+ * rendered accordingly by the paginator.
+ *
+ * @param <F> the filter type
+ */
+@FunctionalInterface
+public interface CountStrategy<F> {
+
+    ItemCount count(CountContext<F> context);
+
+    /** Always runs the exact count. */
+    static <F> CountStrategy<F> exact() {
+        return context -> ItemCount.exact(context.exactCount());
+    }
+
+    /**
+     * Counts exactly up to {@code cap} rows and reports "cap+" beyond that. Whether the cap is
+     * exceeded is probed with a single-row fetch at offset {@code cap}.
+     */
+    static <F> CountStrategy<F> capped(long cap) {
+        if (cap <= 0) {
+            throw new IllegalArgumentException("cap must be positive");
+        }
+        return context ->
+                context.hasRowAt(cap)
+                        ? ItemCount.atLeast(cap)
+                        : ItemCount.exact(context.exactCount());
+    }
+
+    /**
+     * Uses an approximation supplied by the application, e.g. from the database planner
+     * statistics.
+     */
+    static <F> CountStrategy<F> estimated(ToLongFunction<Optional<F>> estimator) {
+        Objects.requireNonNull(estimator, "estimator");
+        return context -> ItemCount.estimated(estimator.applyAsLong(context.getFilter()));
+    }
+
+    /** Never counts; only tells whether a next page exists. */
+    static <F> CountStrategy<F> hasNextOnly() {
+        return context ->
+                ItemCount.unknown(
+                        context.getOffset() + context.getPageRowCount(), context.hasNextPage());
+    }
+}
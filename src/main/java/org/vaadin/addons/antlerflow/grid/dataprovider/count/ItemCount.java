@@ -0,0 +1,66 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.count;
+
+/**
+ * A total item count together with how much it can be trusted.
+ *
+ * @param value the count; a lower bound for {@link Precision#AT_LEAST} and {@link
+ *     Precision#UNKNOWN}, an approximation for {@link Precision#ESTIMATED}
+ * @param precision how {@code value} is to be interpreted
+ * @param hasMore whether rows exist after the current page; only meaningful when not exact
+ */
+public record ItemCount(long value, Precision precision, boolean hasMore) {
+
+    public enum Precision {
+        EXACT("exact"),
+        AT_LEAST("at-least"),
+        ESTIMATED("estimated"),
+        UNKNOWN("unknown");
+
+        private final String clientName;
+
+        Precision(String clientName) {
+            this.clientName = clientName;
+        }
+
+        /** The value of the paginator's {@code countPrecision} property. */
+        public String getClientName() {
+            return clientName;
+        }
+    }
+
+    public ItemCount {
+        value = Math.max(0L, value);
+    }
+
+    public static ItemCount exact(long value) {
+        return new ItemCount(value, Precision.EXACT, false);
+    }
+
+    /** At least {@code value} rows exist, rendered like "10,000+". */
+    public static ItemCount atLeast(long value) {
+        return new ItemCount(value, Precision.AT_LEAST, true);
+    }
+
+    /** Roughly {@code value} rows exist, rendered like "about 2.3M". */
+    public static ItemCount estimated(long value) {
+        return new ItemCount(value, Precision.ESTIMATED, true);
+    }
+
+    /** The total is not known; {@code seen} rows exist and more may follow. */
+    public static ItemCount unknown(long seen, boolean hasMore) {
+        return new ItemCount(seen, Precision.UNKNOWN, hasMore);
+    }
+
+    public boolean isExact() {
+        return precision == Precision.EXACT;
+    }
+
+    public ItemCount withHasMore(boolean hasMore) {
+        return new ItemCount(value, precision, hasMore);
+    }
+
+    /** The count as a Vaadin {@code size()} value. */
+    public int toSize() {
+        return value > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) value;
+    }
+}
@@ -0,0 +1,15 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.count;
+
+import com.vaadin.flow.data.provider.Query;
+
+/**
+ * Implemented by data providers that can report a total with its {@link ItemCount.Precision}
+ * instead of a plain {@code size()}.
+ *
+ * @param <T> the item type
+ * @param <F> the filter type
+ */
+public interface ItemCountProvider<T, F> {
+
+    ItemCount getItemCount(Query<T, F> query);
+}
@@ -0,0 +1,283 @@
+package org.vaadin.addons.antlerflow.grid.exporter;
+
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.server.VaadinSession;
+import lombok.extern.slf4j.Slf4j;
+import org.vaadin.addons.antlerflow.grid.concurrent.CancellableTask;
+import org.vaadin.addons.antlerflow.grid.concurrent.GridExecutors;
+import org.vaadin.addons.antlerflow.grid.dataprovider.UncachedFetchProvider;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads rows from a data provider in fixed-size chunks, so at most a few chunks are held in memory
+ * no matter how many rows are exported. Chunks reuse the sorting and filter of a template query.
+ *
+ * <p>Every chunk is queried with the full chunk size at an offset that is a multiple of it, so
+ * providers that turn offset and limit into a page number (e.g. Spring Data {@code PageRequest})
+ * read consecutive pages. Rows past the limit are dropped after fetching.
+ *
+ * <p>With a parallelism above one, up to that many chunks are fetched concurrently on the given
+ * executor while rows are still emitted in their original order. The data provider must then be
+ * safe to call from several threads. If the executor rejects a chunk, the chunks already queued
+ * are cancelled and the remaining rows are read on the consuming thread.
+ *
+ * <p>Providers that are not thread-safe must only be called with the session locked; use {@link
+ * #withSessionLock} to read them from a download or job thread.
+ *
+ * @param <T> the item type
+ */
+@Slf4j
+public class ChunkedDataFetcher<T> {
+
+    private final DataProvider<T, Object> dataProvider;
+    private final Query<T, Object> template;
+    private final int chunkSize;
+    private final long limit;
+    private final int parallelism;
+    private final Executor executor;
+
+    /** Session locked around every provider call; {@code null} to call it directly. */
+    private final VaadinSession session;
+
+    public ChunkedDataFetcher(
+            DataProvider<T, ?> dataProvider, Query<T, ?> template, int chunkSize, long limit) {
+        this(dataProvider, template, chunkSize, limit, 1, null);
+    }
+
+    public ChunkedDataFetcher(
+            DataProvider<T, ?> dataProvider,
+            Query<T, ?> template,
+            int chunkSize,
+            long limit,
+            int parallelism,
+            Executor executor) {
+        this(dataProvider, template, chunkSize, limit, parallelism, executor, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ChunkedDataFetcher(
+            DataProvider<T, ?> dataProvider,
+            Query<T, ?> template,
+            int chunkSize,
+            long limit,
+            int parallelism,
+            Executor executor,
+            VaadinSession session) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.dataProvider = (DataProvider<T, Object>) Objects.requireNonNull(dataProvider);
+        this.template = (Query<T, Object>) Objects.requireNonNull(template);
+        this.chunkSize = chunkSize;
+        this.limit = Math.max(0L, limit);
+        this.parallelism = Math.max(1, parallelism);
+        this.executor = executor != null ? executor : GridExecutors.defaultExecutor();
+        this.session = session;
+    }
+
+    /**
+     * Returns a fetcher that counts and reads each chunk with the session locked, for data
+     * providers that are not thread-safe. Chunks are then read one at a time on the consuming
+     * thread, and the UI stays responsive between them.
+     */
+    public ChunkedDataFetcher<T> withSessionLock(VaadinSession session) {
+        Objects.requireNonNull(session, "session");
+        return new ChunkedDataFetcher<>(
+                dataProvider, template, chunkSize, limit, 1, executor, session);
+    }
+
+    /**
+     * Returns the rows lazily; chunks are fetched only as the previous ones are consumed. Closing
+     * the stream cancels chunks still being fetched.
+     */
+    public Stream<T> stream() {
+        ChunkIterator iterator = new ChunkIterator();
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(iterator::cancelPending);
+    }
+
+    /** Counts the rows {@link #stream()} will return. May be as expensive as the backend count. */
+    public long size() {
+        Query<T, Object> query =
+                new Query<>(
+                        0,
+                        Integer.MAX_VALUE,
+                        template.getSortOrders(),
+                        template.getInMemorySorting(),
+                        template.getFilter().orElse(null));
+        return Math.min(limit, underLock(() -> dataProvider.size(query)));
+    }
+
+    /**
+     * Fetches the rows in {@code [offset, offset + size)}, bypassing the provider's caches if it is
+     * an {@link UncachedFetchProvider}.
+     */
+    @SuppressWarnings("unchecked")
+    protected List<T> fetchChunk(long offset, int size) {
+        Query<T, Object> query =
+                new Query<>(
+                        Math.toIntExact(offset),
+                        size,
+                        template.getSortOrders(),
+                        template.getInMemorySorting(),
+                        template.getFilter().orElse(null));
+        try (Stream<T> rows =
+                dataProvider instanceof UncachedFetchProvider<?, ?> uncached
+                        ? ((UncachedFetchProvider<T, Object>) uncached).fetchUncached(query)
+                        : dataProvider.fetch(query)) {
+            return rows.toList();
+        }
+    }
+
+    private List<T> readChunk(long offset) {
+        return underLock(() -> fetchChunk(offset, chunkSize));
+    }
+
+    private <R> R underLock(Supplier<R> call) {
+        if (session == null) {
+            return call.get();
+        }
+        AtomicReference<R> result = new AtomicReference<>();
+        session.accessSynchronously(() -> result.set(call.get()));
+        return result.get();
+    }
+
+    protected int getChunkSize() {
+        return chunkSize;
+    }
+
+    protected long getLimit() {
+        return limit;
+    }
+
+    protected int getParallelism() {
+        return parallelism;
+    }
+
+    private final class ChunkIterator implements Iterator<T> {
+        /** Chunks being fetched, in row order. Holds at most {@code parallelism} chunks. */
+        private final Deque<Future<List<T>>> pending = new ArrayDeque<>();
+        private List<T> chunk = List.of();
+        private int index;
+
+        /** Offset of the next chunk to fetch. */
+        private long nextOffset;
+
+        /** Offset of the next chunk to emit. */
+        private long chunkOffset;
+
+        private boolean exhausted;
+
+        /** Whether chunks are fetched on the consuming thread. */
+        private boolean sequential = parallelism == 1;
+
+        @Override
+        public boolean hasNext() {
+            while (index >= chunk.size()) {
+                if (exhausted) {
+                    return false;
+                }
+                if (!sequential) {
+                    fill();
+                }
+                List<T> rows;
+                if (sequential) {
+                    if (nextOffset >= limit) {
+                        return false;
+                    }
+                    rows = readChunk(nextOffset);
+                    nextOffset += chunkSize;
+                } else {
+                    if (pending.isEmpty()) {
+                        return false;
+                    }
+                    rows = await(pending.poll());
+                }
+                if (rows.size() < chunkSize) {
+                    // A short chunk means the provider has no more rows; later ones are empty.
+                    exhausted = true;
+                    cancelPending();
+                }
+                chunk = withinLimit(rows, chunkOffset);
+                chunkOffset += chunkSize;
+                index = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return chunk.get(index++);
+        }
+
+        private List<T> withinLimit(List<T> rows, long offset) {
+            long remaining = limit - offset;
+            return rows.size() > remaining ? rows.subList(0, (int) remaining) : rows;
+        }
+
+        private void fill() {
+            while (pending.size() < parallelism && nextOffset < limit) {
+                long offset = nextOffset;
+                final CancellableTask<List<T>> task =
+                        new CancellableTask<>(() -> readChunk(offset));
+                pending.add(task);
+                nextOffset += chunkSize;
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    log.debug("Chunk fetch rejected by executor, reading sequentially", e);
+                    // Pending chunks start at the next one to emit; read them again from there.
+                    cancelPending();
+                    nextOffset = chunkOffset;
+                    sequential = true;
+                    return;
+                }
+            }
+        }
+
+        private List<T> await(Future<List<T>> future) {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelPending();
+                throw new CancellationException("Interrupted while fetching export rows");
+            } catch (ExecutionException e) {
+                cancelPending();
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException("Fetching export rows failed", e.getCause());
+            }
+        }
+
+        void cancelPending() {
+            Future<List<T>> future;
+            while ((future = pending.poll()) != null) {
+                future.cancel(true);
+            }
+        }
+    }
+}
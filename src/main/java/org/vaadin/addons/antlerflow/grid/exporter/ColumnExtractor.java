@@ -0,0 +1,76 @@
+package org.vaadin.addons.antlerflow.grid.exporter;
+
+import com.vaadin.flow.function.ValueProvider;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * The export columns compiled once per export into flat arrays of value providers and formatters,
+ * so extracting a row is a plain loop without renderer lookups. Each thread gets its own reused
+ * row buffer: the returned arrays are only valid until the next call on the same thread.
+ *
+ * @param <T> the item type
+ */
+public class ColumnExtractor<T> {
+
+    /** The formatter compiled for the last value type seen in a column. */
+    private record CompiledFormatter(Class<?> type, ValueFormatter formatter) {}
+
+    private final ValueProvider<T, ?>[] accessors;
+    private final CompiledFormatter[] formatters;
+    private final Function<Class<?>, ValueFormatter> formatterResolver;
+    private final ThreadLocal<Object[]> rawBuffer;
+    private final ThreadLocal<String[]> textBuffer;
+
+    public ColumnExtractor(List<ExportColumn<T>> columns) {
+        this(columns, ValueFormatter::forType);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ColumnExtractor(
+            List<ExportColumn<T>> columns, Function<Class<?>, ValueFormatter> formatterResolver) {
+        this.accessors =
+                columns.stream().map(ExportColumn::valueProvider).toArray(ValueProvider[]::new);
+        this.formatters = new CompiledFormatter[accessors.length];
+        this.formatterResolver = Objects.requireNonNull(formatterResolver, "formatterResolver");
+        int width = accessors.length;
+        this.rawBuffer = ThreadLocal.withInitial(() -> new Object[width]);
+        this.textBuffer = ThreadLocal.withInitial(() -> new String[width]);
+    }
+
+    public int getColumnCount() {
+        return accessors.length;
+    }
+
+    /** Returns the raw cell values of the item. */
+    public Object[] extract(T item) {
+        Object[] row = rawBuffer.get();
+        for (int i = 0; i < accessors.length; i++) {
+            row[i] = accessors[i].apply(item);
+        }
+        return row;
+    }
+
+    /** Returns the cell values of the item formatted as text; {@code null} stays {@code null}. */
+    public String[] extractText(T item) {
+        String[] row = textBuffer.get();
+        for (int i = 0; i < accessors.length; i++) {
+            Object value = accessors[i].apply(item);
+            row[i] = value == null ? null : formatterFor(i, value.getClass()).format(value);
+        }
+        return row;
+    }
+
+    private ValueFormatter formatterFor(int column, Class<?> type) {
+        CompiledFormatter compiled = formatters[column];
+        if (compiled == null || compiled.type() != type) {
+            // Columns almost always hold one type, so this runs once per column. Racing threads
+            // may both resolve; the record is immutable, so either result is safe to publish.
+            compiled = new CompiledFormatter(type, formatterResolver.apply(type));
+            formatters[column] = compiled;
+        }
+        return compiled.formatter();
+    }
+}
@@ -0,0 +1,94 @@
+package org.vaadin.addons.antlerflow.grid.exporter;
+
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.data.binder.PropertyDefinition;
+import com.vaadin.flow.data.binder.PropertySet;
+import com.vaadin.flow.data.renderer.LitRenderer;
+import com.vaadin.flow.function.ValueProvider;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * A grid column prepared for export: its header and the value provider reading the raw cell
+ * value. Resolved once per export instead of once per row.
+ *
+ * @param header the header text
+ * @param valueProvider reads the cell value of an item
+ * @param <T> the item type
+ */
+@Slf4j
+public record ExportColumn<T>(String header, ValueProvider<T, ?> valueProvider) {
+
+    public ExportColumn {
+        header = header == null ? "" : header;
+        Objects.requireNonNull(valueProvider, "valueProvider");
+    }
+
+    /** Resolves the visible columns of the grid that pass the filter, in display order. */
+    public static <T> List<ExportColumn<T>> fromGrid(
+            Grid<T> grid, Predicate<Grid.Column<T>> columnFilter) {
+        return fromGrid(grid, columnFilter, Map.of());
+    }
+
+    /**
+     * Resolves the visible columns of the grid that pass the filter, in display order. A column's
+     * value is read by the value provider registered for its key, else by the bean property named
+     * like its key, else by the value provider of a single-property {@link LitRenderer}. Columns
+     * without any of these, e.g. component columns, are left out with a warning.
+     */
+    public static <T> List<ExportColumn<T>> fromGrid(
+            Grid<T> grid,
+            Predicate<Grid.Column<T>> columnFilter,
+            Map<String, ValueProvider<T, ?>> valueProviders) {
+        Predicate<Grid.Column<T>> filter = columnFilter == null ? column -> true : columnFilter;
+        Map<String, ValueProvider<T, ?>> registered =
+                valueProviders == null ? Map.of() : valueProviders;
+        return grid.getColumns().stream()
+                .filter(Grid.Column::isVisible)
+                .filter(filter)
+                .flatMap(column -> exportColumnOf(grid, column, registered).stream())
+                .toList();
+    }
+
+    private static <T> Optional<ExportColumn<T>> exportColumnOf(
+            Grid<T> grid, Grid.Column<T> column, Map<String, ValueProvider<T, ?>> registered) {
+        return valueProviderOf(grid, column, registered)
+                .map(provider -> new ExportColumn<>(headerOf(column), provider));
+    }
+
+    private static <T> String headerOf(Grid.Column<T> column) {
+        return Optional.ofNullable(column.getHeaderText())
+                .filter(text -> !text.isBlank())
+                .orElseGet(() -> Optional.ofNullable(column.getKey()).orElse(""));
+    }
+
+    private static <T> Optional<ValueProvider<T, ?>> valueProviderOf(
+            Grid<T> grid, Grid.Column<T> column, Map<String, ValueProvider<T, ?>> registered) {
+        String key = column.getKey();
+        if (key != null && registered.containsKey(key)) {
+            return Optional.of(registered.get(key));
+        }
+        PropertySet<T> properties = grid.getPropertySet();
+        if (key != null && properties != null) {
+            Optional<ValueProvider<T, ?>> getter =
+                    properties.getProperty(key).map(PropertyDefinition::getGetter);
+            if (getter.isPresent()) {
+                return getter;
+            }
+        }
+        if (column.getRenderer() instanceof LitRenderer<T> lit
+                && lit.getValueProviders().size() == 1) {
+            return Optional.of(lit.getValueProviders().values().iterator().next());
+        }
+        log.warn(
+                "Column '{}' is left out of the export: its value cannot be resolved. Register a"
+                        + " value provider for it with GridExportConfig.valueProvider(key, ...).",
+                key != null ? key : headerOf(column));
+        return Optional.empty();
+    }
+}
@@ -1,10 +1,16 @@
 package org.vaadin.addons.antlerflow.grid.exporter;
 
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.function.ValueProvider;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Singular;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 
 @Data
@@ -16,4 +22,29 @@ public class GridExportConfig<T> {
     @Builder.Default private ExportSize size = ExportSize.CURRENT_DISPLAY;
     @Builder.Default private Integer limit = Integer.MAX_VALUE;
     @Builder.Default private Predicate<Grid.Column<T>> columnFilter = column -> true;
+
+    /**
+     * Value providers of exported columns by column key. Columns without one are read through
+     * the bean property named like their key or their single-property {@code LitRenderer}.
+     */
+    @Singular private Map<String, ValueProvider<T, ?>> valueProviders;
+
+    /** Number of rows fetched from the data provider at a time by streaming exporters. */
+    @Builder.Default private int chunkSize = 1000;
+
+    /**
+     * Number of chunks fetched concurrently for {@link ExportSize#ALL}. Rows keep their order.
+     * Only applies to {@code ThreadSafeDataProvider}s; others are read under the session lock.
+     */
+    @Builder.Default private int parallelism = 1;
+
+    /** Executor running the parallel chunk fetches, {@code null} for the shared default. */
+    private Executor fetchExecutor;
+
+    /** Creates a fetcher reading the rows of {@code dataProvider} as configured. */
+    public ChunkedDataFetcher<T> createFetcher(
+            DataProvider<T, ?> dataProvider, Query<T, ?> template, long limit) {
+        return new ChunkedDataFetcher<>(
+                dataProvider, template, chunkSize, limit, parallelism, fetchExecutor);
+    }
 }
@@ -1,8 +1,23 @@
 package org.vaadin.addons.antlerflow.grid.exporter;
 
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.data.provider.DataCommunicator;
 import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
 
 public interface GridExportHandler<T> {
     void handleExport(Grid<T> grid, DataProvider<T, ?> dataProvider, GridExportConfig<T> config);
+
+    /** The grid's current filter and sorting, as a template for the queries of an export. */
+    static <T> Query<T, Object> queryTemplate(Grid<T> grid) {
+        DataCommunicator<T> communicator = grid.getDataCommunicator();
+        // buildQuery returns a raw Query; take only its filter and the sorting typed.
+        Query<?, ?> built = communicator.buildQuery(0, 0);
+        return new Query<>(
+                0,
+                0,
+                communicator.getBackEndSorting(),
+                communicator.getInMemorySorting(),
+                built.getFilter().orElse(null));
+    }
 }
@@ -0,0 +1,35 @@
+package org.vaadin.addons.antlerflow.grid.exporter;
+
+import java.math.BigDecimal;
+import java.time.temporal.TemporalAccessor;
+
+/** Turns a non-null cell value into the text written by text-based export formats. */
+@FunctionalInterface
+public interface ValueFormatter {
+
+    String format(Object value);
+
+    /** Returns the default formatter for values of the given type. */
+    static ValueFormatter forType(Class<?> type) {
+        if (type == String.class) {
+            return value -> (String) value;
+        }
+        if (type == Integer.class
+                || type == Long.class
+                || type == Short.class
+                || type == Byte.class) {
+            return value -> Long.toString(((Number) value).longValue());
+        }
+        if (type == BigDecimal.class) {
+            return value -> ((BigDecimal) value).toPlainString();
+        }
+        if (type.isEnum()) {
+            return value -> ((Enum<?>) value).name();
+        }
+        if (TemporalAccessor.class.isAssignableFrom(type)) {
+            // java.time types print ISO-8601 from toString().
+            return Object::toString;
+        }
+        return String::valueOf;
+    }
+}
@@ -0,0 +1,257 @@
+package org.vaadin.addons.antlerflow.grid.exporter.job;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.shared.Registration;
+import lombok.extern.slf4j.Slf4j;
+import org.vaadin.addons.antlerflow.grid.dataprovider.ThreadSafeDataProvider;
+import org.vaadin.addons.antlerflow.grid.exporter.ChunkedDataFetcher;
+import org.vaadin.addons.antlerflow.grid.exporter.ExportSize;
+import org.vaadin.addons.antlerflow.grid.exporter.GridExportConfig;
+import org.vaadin.addons.antlerflow.grid.exporter.streaming.StreamingExporter;
+import org.vaadin.addons.antlerflow.grid.exporter.streaming.StreamingFormat;
+import org.vaadin.addons.antlerflow.grid.exporter.streaming.StreamingGridExportHandler;
+import org.vaadin.addons.antlerflow.grid.metrics.GridMetrics;
+
+import java.text.NumberFormat;
+import java.util.Objects;
+
+/**
+ * Runs exports as background jobs instead of in the request thread. The dialog shows the rows
+ * processed so far, lets the user cancel, and offers the file for download once it is ready.
+ * Progress is pushed through {@code UI.access}, so the application should enable server push.
+ *
+ * @param <T> the item type
+ */
+@Slf4j
+public class BackgroundGridExportHandler<T> extends StreamingGridExportHandler<T> {
+
+    private final ExportJobManager jobManager;
+    private final ExportSpool spool;
+
+    public BackgroundGridExportHandler() {
+        this(ExportJobManager.getDefault());
+    }
+
+    public BackgroundGridExportHandler(ExportJobManager jobManager) {
+        this(jobManager, ExportSpool.getDefault());
+    }
+
+    public BackgroundGridExportHandler(ExportJobManager jobManager, ExportSpool spool) {
+        this.jobManager = Objects.requireNonNull(jobManager, "jobManager");
+        this.spool = Objects.requireNonNull(spool, "spool");
+    }
+
+    @Override
+    public void handleExport(
+            final Grid<T> grid,
+            final DataProvider<T, ?> dataProvider,
+            final GridExportConfig<T> config) {
+        Objects.requireNonNull(grid, "grid must not be null");
+        final GridExportConfig<T> effectiveConfig =
+                config != null ? config : GridExportConfig.<T>builder().build();
+        final UI ui =
+                grid.getUI()
+                        .orElseThrow(() -> new IllegalStateException("grid must be attached"));
+        new JobDialog(ui, grid, dataProvider, effectiveConfig).open();
+    }
+
+    /**
+     * Submits an export job writing the given format. Columns, sorting and filter are captured on
+     * the calling (UI) thread, as is the current page of a paginated grid exporting {@link
+     * ExportSize#CURRENT_DISPLAY}; other rows are counted and fetched by the job, with the session
+     * locked unless the provider is a {@link ThreadSafeDataProvider}.
+     */
+    public ExportJob submitJob(
+            final Grid<T> grid,
+            final DataProvider<T, ?> dataProvider,
+            final GridExportConfig<T> config,
+            final StreamingFormat format) {
+        final StreamingExporter<T> exporter =
+                new StreamingExporter<>(format, getColumns(grid, config), config.getChunkSize());
+        final ChunkedDataFetcher<T> fetcher = createFetcher(grid, dataProvider, config);
+        final String fileName = getFileName(config, format);
+        final String gridId = GridMetrics.gridIdOf(grid);
+        return jobManager.submit(
+                fileName,
+                job -> {
+                    job.setTotalRows(countRows(fetcher));
+                    final long start = System.nanoTime();
+                    ExportArtifact artifact = null;
+                    try {
+                        artifact = writeArtifact(job, exporter, fetcher, fileName);
+                        return artifact;
+                    } finally {
+                        getMetrics()
+                                .recordExport(
+                                        gridId,
+                                        format.getExtension(),
+                                        System.nanoTime() - start,
+                                        job.getRowsProcessed(),
+                                        artifact == null ? 0 : artifact.getSize(),
+                                        artifact != null);
+                    }
+                });
+    }
+
+    /**
+     * Writes the export and returns the artifact to download. Runs on the job thread. The default
+     * spools to disk, so the file is neither held in heap nor regenerated for a re-download.
+     */
+    protected ExportArtifact writeArtifact(
+            final ExportJob job,
+            final StreamingExporter<T> exporter,
+            final ChunkedDataFetcher<T> fetcher,
+            final String fileName)
+            throws Exception {
+        return spool.spool(
+                fileName,
+                exporter.getFormat().getContentType(),
+                out -> exporter.write(fetcher.stream(), out, job::reportProgress));
+    }
+
+    private long countRows(final ChunkedDataFetcher<T> fetcher) {
+        try {
+            return fetcher.size();
+        } catch (RuntimeException e) {
+            log.debug("Could not count export rows, progress will be indeterminate", e);
+            return -1;
+        }
+    }
+
+    private final class JobDialog extends Dialog {
+        private final UI ui;
+        private final HorizontalLayout formatButtons = new HorizontalLayout();
+        private final ProgressBar progressBar = new ProgressBar();
+        private final Span status = new Span();
+        private final VerticalLayout downloads = new VerticalLayout();
+        private final Button cancelButton = new Button("Cancel");
+        private final NumberFormat numberFormat = NumberFormat.getIntegerInstance();
+
+        private ExportJob job;
+        private Registration jobRegistration;
+
+        JobDialog(
+                final UI ui,
+                final Grid<T> grid,
+                final DataProvider<T, ?> dataProvider,
+                final GridExportConfig<T> config) {
+            this.ui = ui;
+            setHeaderTitle(getDialogTitle());
+
+            for (StreamingFormat format : getFormats(config)) {
+                formatButtons.add(
+                        new Button(
+                                format.getLabel(),
+                                event -> start(submitJob(grid, dataProvider, config, format))));
+            }
+            progressBar.setVisible(false);
+            downloads.setPadding(false);
+            cancelButton.setVisible(false);
+            cancelButton.addClickListener(event -> job.cancel());
+
+            final VerticalLayout content =
+                    new VerticalLayout(formatButtons, progressBar, status, downloads);
+            content.setPadding(false);
+            add(content);
+            getFooter().add(cancelButton, new Button("Close", event -> close()));
+            addOpenedChangeListener(
+                    event -> {
+                        if (!event.isOpened()) {
+                            dispose();
+                        }
+                    });
+        }
+
+        private void start(final ExportJob newJob) {
+            job = newJob;
+            formatButtons.setEnabled(false);
+            progressBar.setVisible(true);
+            progressBar.setIndeterminate(true);
+            cancelButton.setVisible(true);
+            jobRegistration = newJob.addListener(this::pushUpdate);
+            // The job may have progressed before the listener was registered.
+            update(newJob);
+        }
+
+        private void pushUpdate(final ExportJob updated) {
+            try {
+                ui.access(() -> update(updated));
+            } catch (UIDetachedException e) {
+                updated.cancel();
+            }
+        }
+
+        private void update(final ExportJob updated) {
+            if (updated != job) {
+                return;
+            }
+            final double progress = updated.getProgress();
+            progressBar.setIndeterminate(progress < 0);
+            if (progress >= 0) {
+                progressBar.setValue(progress);
+            }
+            switch (updated.getState()) {
+                case QUEUED -> status.setText("Waiting for other exports to finish…");
+                case RUNNING -> status.setText(rowsText(updated));
+                case COMPLETED -> {
+                    status.setText(rowsText(updated));
+                    final ExportArtifact artifact = updated.getArtifact();
+                    final Anchor anchor =
+                            new Anchor(
+                                    artifact.toDownloadHandler(),
+                                    "Download " + artifact.getFileName());
+                    anchor.getElement().setAttribute("download", true);
+                    downloads.add(anchor);
+                    finished();
+                }
+                case FAILED -> {
+                    status.setText("Export failed");
+                    finished();
+                }
+                case CANCELLED -> {
+                    status.setText("Export cancelled");
+                    finished();
+                }
+            }
+        }
+
+        private String rowsText(final ExportJob updated) {
+            final long total = updated.getTotalRows();
+            final String rows = numberFormat.format(updated.getRowsProcessed());
+            return total >= 0
+                    ? rows + " / " + numberFormat.format(total) + " rows"
+                    : rows + " rows";
+        }
+
+        private void finished() {
+            progressBar.setVisible(false);
+            cancelButton.setVisible(false);
+            formatButtons.setEnabled(true);
+            if (jobRegistration != null) {
+                jobRegistration.remove();
+                jobRegistration = null;
+            }
+        }
+
+        private void dispose() {
+            if (jobRegistration != null) {
+                jobRegistration.remove();
+                jobRegistration = null;
+            }
+            // Finished exports stay downloadable until their spool retention ends.
+            if (job != null) {
+                job.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.vaadin.addons.antlerflow.grid.exporter.job;
+
+import com.vaadin.flow.server.streams.DownloadHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/** The file produced by a finished export job. */
+public interface ExportArtifact {
+
+    String getFileName();
+
+    String getContentType();
+
+    /** Size in bytes. */
+    long getSize();
+
+    InputStream openStream() throws IOException;
+
+    /** Frees the resources held by the artifact. It can no longer be downloaded afterward. */
+    default void release() {}
+
+    /** Returns a download handler serving the artifact, usable with an {@code Anchor}. */
+    default DownloadHandler toDownloadHandler() {
+        return event -> {
+            event.setFileName(getFileName());
+            event.setContentType(getContentType());
+            try (InputStream in = openStream()) {
+                in.transferTo(event.getOutputStream());
+            }
+        };
+    }
+}
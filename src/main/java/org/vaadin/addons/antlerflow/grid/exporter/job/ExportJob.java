@@ -0,0 +1,164 @@
+package org.vaadin.addons.antlerflow.grid.exporter.job;
+
+import com.vaadin.flow.shared.Registration;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * An export running in the background. Listeners are notified on the worker thread whenever the
+ * state changes and, at most every {@link #PROGRESS_INTERVAL_MILLIS}, when progress is made; UI
+ * code must use {@code UI.access} to apply the updates.
+ */
+public class ExportJob {
+
+    public static final long PROGRESS_INTERVAL_MILLIS = 250;
+
+    private final String id = UUID.randomUUID().toString();
+    private final String name;
+    private final List<Consumer<ExportJob>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile ExportJobState state = ExportJobState.QUEUED;
+    private volatile long rowsProcessed;
+    private volatile long totalRows = -1;
+    private volatile ExportArtifact artifact;
+    private volatile Throwable failure;
+    private volatile boolean cancelRequested;
+    private volatile Future<?> future;
+    private long lastNotified;
+
+    ExportJob(String name) {
+        this.name = Objects.requireNonNull(name, "name");
+        // nanoTime has an arbitrary, possibly negative origin; let the first report notify.
+        this.lastNotified = System.nanoTime() - PROGRESS_INTERVAL_MILLIS * 1_000_000;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ExportJobState getState() {
+        return state;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    /** Total number of rows, or {@code -1} if unknown. */
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    /** Fraction of rows processed in {@code [0, 1]}, or {@code -1} if the total is unknown. */
+    public double getProgress() {
+        long total = totalRows;
+        if (state == ExportJobState.COMPLETED) {
+            return 1;
+        }
+        return total <= 0 ? -1 : Math.min(1d, (double) rowsProcessed / total);
+    }
+
+    /** The produced artifact once {@link ExportJobState#COMPLETED}, otherwise {@code null}. */
+    public ExportArtifact getArtifact() {
+        return artifact;
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    /** Cancels the job. A running export is interrupted; a finished one is left as is. */
+    public void cancel() {
+        cancelRequested = true;
+        Future<?> f = future;
+        if (f != null) {
+            f.cancel(true);
+        }
+    }
+
+    public Registration addListener(Consumer<ExportJob> listener) {
+        listeners.add(Objects.requireNonNull(listener));
+        return () -> listeners.remove(listener);
+    }
+
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    /**
+     * Records the number of rows processed so far.
+     *
+     * @throws CancellationException if the job has been cancelled
+     */
+    public void reportProgress(long rowsProcessed) {
+        if (cancelRequested || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Export job " + name + " was cancelled");
+        }
+        this.rowsProcessed = rowsProcessed;
+        long now = System.nanoTime();
+        boolean notify;
+        synchronized (this) {
+            notify = now - lastNotified >= PROGRESS_INTERVAL_MILLIS * 1_000_000;
+            if (notify) {
+                lastNotified = now;
+            }
+        }
+        if (notify) {
+            fireChange();
+        }
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    void started() {
+        transition(ExportJobState.RUNNING, null, null);
+    }
+
+    void completed(ExportArtifact artifact) {
+        if (!transition(ExportJobState.COMPLETED, artifact, null) && artifact != null) {
+            // Cancelled while finishing: nobody will download it.
+            artifact.release();
+        }
+    }
+
+    void failed(Throwable failure) {
+        transition(ExportJobState.FAILED, null, failure);
+    }
+
+    void cancelled() {
+        transition(ExportJobState.CANCELLED, null, null);
+    }
+
+    private boolean transition(ExportJobState to, ExportArtifact artifact, Throwable failure) {
+        synchronized (this) {
+            if (state.isFinished()) {
+                return false;
+            }
+            this.artifact = artifact;
+            this.failure = failure;
+            this.state = to;
+        }
+        fireChange();
+        return true;
+    }
+
+    private void fireChange() {
+        listeners.forEach(listener -> listener.accept(this));
+    }
+}
@@ -0,0 +1,101 @@
+package org.vaadin.addons.antlerflow.grid.exporter.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.vaadin.addons.antlerflow.grid.concurrent.CancellableTask;
+import org.vaadin.addons.antlerflow.grid.concurrent.GridExecutors;
+
+import java.io.InterruptedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs export jobs in the background. At most {@code maxConcurrentJobs} exports run at the same
+ * time; further jobs wait in {@link ExportJobState#QUEUED} state.
+ */
+@Slf4j
+public class ExportJobManager {
+
+    private static final ExportJobManager DEFAULT =
+            new ExportJobManager(2, GridExecutors.defaultExecutor());
+
+    private final Semaphore permits;
+    private final Executor executor;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    public ExportJobManager(int maxConcurrentJobs, Executor executor) {
+        if (maxConcurrentJobs <= 0) {
+            throw new IllegalArgumentException("maxConcurrentJobs must be positive");
+        }
+        this.permits = new Semaphore(maxConcurrentJobs, true);
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    /** Returns the shared manager running two exports at a time on virtual threads. */
+    public static ExportJobManager getDefault() {
+        return DEFAULT;
+    }
+
+    public ExportJob submit(String name, ExportTask task) {
+        Objects.requireNonNull(task, "task");
+        ExportJob job = new ExportJob(name);
+        CancellableTask<Void> future =
+                new CancellableTask<>(() -> run(job, task), null) {
+                    @Override
+                    protected void done() {
+                        if (isCancelled()) {
+                            job.cancelled();
+                        }
+                        jobs.remove(job.getId());
+                    }
+                };
+        job.setFuture(future);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            job.failed(e);
+        }
+        return job;
+    }
+
+    /** Jobs that are queued or running. */
+    public Collection<ExportJob> getActiveJobs() {
+        return List.copyOf(jobs.values());
+    }
+
+    private void run(ExportJob job, ExportTask task) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            job.cancelled();
+            return;
+        }
+        try {
+            if (job.isCancelRequested()) {
+                job.cancelled();
+                return;
+            }
+            job.started();
+            job.completed(task.export(job));
+        } catch (CancellationException | InterruptedException | InterruptedIOException e) {
+            job.cancelled();
+        } catch (Exception e) {
+            if (job.isCancelRequested()) {
+                job.cancelled();
+            } else {
+                log.warn("Export job {} failed", job.getName(), e);
+                job.failed(e);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.vaadin.addons.antlerflow.grid.exporter.job;
+
+public enum ExportJobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
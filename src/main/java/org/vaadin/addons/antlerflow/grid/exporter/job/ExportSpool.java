@@ -0,0 +1,151 @@
+package org.vaadin.addons.antlerflow.grid.exporter.job;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes exports to temporary files instead of the heap and deletes them once their retention
+ * window has passed. Enforces a per-file and a total size quota.
+ */
+@Slf4j
+public class ExportSpool implements AutoCloseable {
+
+    /** Writes the content of a spooled export. */
+    @FunctionalInterface
+    public interface SpoolWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private static final class DefaultHolder {
+        private static final ExportSpool INSTANCE = new ExportSpool(SpoolConfig.defaults());
+    }
+
+    private static final ScheduledExecutorService CLEANER =
+            Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("advanced-grid-spool-cleaner").daemon().factory());
+
+    @Getter private final SpoolConfig config;
+    private final Map<Path, FileExportArtifact> artifacts = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final ScheduledFuture<?> cleanup;
+
+    public ExportSpool(SpoolConfig config) {
+        this.config = Objects.requireNonNull(config, "config");
+        long period = Math.clamp(config.getRetention().toSeconds(), 1, 60);
+        this.cleanup =
+                CLEANER.scheduleWithFixedDelay(
+                        this::purgeExpired, period, period, TimeUnit.SECONDS);
+    }
+
+    /** Returns the shared spool writing to the temp directory with the default settings. */
+    public static ExportSpool getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Spools the output of the writer to a new file. On failure the partial file is deleted and
+     * the exception rethrown.
+     */
+    public FileExportArtifact spool(String fileName, String contentType, SpoolWriter writer)
+            throws IOException {
+        Files.createDirectories(config.getDirectory());
+        Path path = Files.createTempFile(config.getDirectory(), "export-", ".tmp");
+        QuotaOutputStream out = null;
+        try {
+            out = new QuotaOutputStream(Files.newOutputStream(path));
+            try (OutputStream buffered = new BufferedOutputStream(out, 64 * 1024)) {
+                writer.write(buffered);
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            usedBytes.addAndGet(-(out == null ? 0 : out.written));
+            Files.deleteIfExists(path);
+            throw e;
+        }
+
+        FileExportArtifact artifact =
+                new FileExportArtifact(
+                        path,
+                        fileName,
+                        contentType,
+                        out.written,
+                        Instant.now().plus(config.getRetention()),
+                        this::released);
+        artifacts.put(path, artifact);
+        return artifact;
+    }
+
+    /** Bytes currently taken by spooled exports, including exports being written. */
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    /** Deletes the files of all exports whose retention window has passed. */
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        artifacts.values().stream()
+                .filter(artifact -> artifact.getExpiresAt().isBefore(now))
+                .forEach(FileExportArtifact::release);
+    }
+
+    /** Stops the periodic cleanup and deletes all spooled exports. */
+    @Override
+    public void close() {
+        cleanup.cancel(false);
+        artifacts.values().forEach(FileExportArtifact::release);
+    }
+
+    private void released(FileExportArtifact artifact) {
+        if (artifacts.remove(artifact.getPath()) != null) {
+            usedBytes.addAndGet(-artifact.getSize());
+        }
+    }
+
+    private final class QuotaOutputStream extends FilterOutputStream {
+        private long written;
+
+        QuotaOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            reserve(1);
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            reserve(len);
+            out.write(b, off, len);
+        }
+
+        private void reserve(int bytes) throws IOException {
+            if (written + bytes > config.getMaxFileBytes()) {
+                throw new SpoolQuotaExceededException(
+                        "Export exceeds the limit of " + config.getMaxFileBytes() + " bytes");
+            }
+            if (usedBytes.addAndGet(bytes) > config.getMaxTotalBytes()) {
+                usedBytes.addAndGet(-bytes);
+                throw new SpoolQuotaExceededException(
+                        "Export spool is full (" + config.getMaxTotalBytes() + " bytes)");
+            }
+            written += bytes;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.vaadin.addons.antlerflow.grid.exporter.job;
+
+/** The work of an export job. Runs on a background thread. */
+@FunctionalInterface
+public interface ExportTask {
+
+    /**
+     * Produces the export. Implementations report progress through {@link
+     * ExportJob#reportProgress(long)}, which throws a {@link
+     * java.util.concurrent.CancellationException} once the job has been cancelled.
+     */
+    ExportArtifact export(ExportJob job) throws Exception;
+}
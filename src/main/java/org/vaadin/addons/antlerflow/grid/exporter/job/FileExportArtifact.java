@@ -0,0 +1,102 @@
+package org.vaadin.addons.antlerflow.grid.exporter.job;
+
+import com.vaadin.flow.server.streams.DownloadHandler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * An export artifact spooled to a file. Downloads support HTTP range requests, so an interrupted
+ * download can be resumed without generating the export again.
+ */
+@Slf4j
+public class FileExportArtifact implements ExportArtifact {
+
+    private final Path path;
+    private final String fileName;
+    private final String contentType;
+    private final long size;
+    private final Instant expiresAt;
+    private final Consumer<FileExportArtifact> onRelease;
+    private volatile boolean released;
+
+    FileExportArtifact(
+            Path path,
+            String fileName,
+            String contentType,
+            long size,
+            Instant expiresAt,
+            Consumer<FileExportArtifact> onRelease) {
+        this.path = Objects.requireNonNull(path, "path");
+        this.fileName = Objects.requireNonNull(fileName, "fileName");
+        this.contentType = Objects.requireNonNull(contentType, "contentType");
+        this.size = size;
+        this.expiresAt = expiresAt;
+        this.onRelease = onRelease;
+    }
+
+    @Override
+    public String getFileName() {
+        return fileName;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /** When the file is deleted by its spool. */
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public InputStream openStream() throws IOException {
+        if (released) {
+            throw new IOException("Export artifact " + fileName + " has expired");
+        }
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public void release() {
+        synchronized (this) {
+            if (released) {
+                return;
+            }
+            released = true;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled export {}", path, e);
+        }
+        if (onRelease != null) {
+            onRelease.accept(this);
+        }
+    }
+
+    @Override
+    public DownloadHandler toDownloadHandler() {
+        return new RangeDownloadHandler(this);
+    }
+}
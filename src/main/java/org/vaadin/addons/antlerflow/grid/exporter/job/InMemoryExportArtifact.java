@@ -0,0 +1,50 @@
+package org.vaadin.addons.antlerflow.grid.exporter.job;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/** An export artifact held in memory. */
+public class InMemoryExportArtifact implements ExportArtifact {
+
+    private final String fileName;
+    private final String contentType;
+    private volatile byte[] content;
+
+    public InMemoryExportArtifact(String fileName, String contentType, byte[] content) {
+        this.fileName = Objects.requireNonNull(fileName, "fileName");
+        this.contentType = Objects.requireNonNull(contentType, "contentType");
+        this.content = Objects.requireNonNull(content, "content");
+    }
+
+    @Override
+    public String getFileName() {
+        return fileName;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public long getSize() {
+        byte[] bytes = content;
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    @Override
+    public InputStream openStream() throws IOException {
+        byte[] bytes = content;
+        if (bytes == null) {
+            throw new IOException("Export artifact " + fileName + " has been released");
+        }
+        return new ByteArrayInputStream(bytes);
+    }
+
+    @Override
+    public void release() {
+        content = null;
+    }
+}
@@ -0,0 +1,128 @@
+package org.vaadin.addons.antlerflow.grid.exporter.job;
+
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.streams.DownloadEvent;
+import com.vaadin.flow.server.streams.DownloadHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Serves a {@link FileExportArtifact}, honouring single-range {@code Range} and {@code If-Range}
+ * requests so interrupted downloads can be resumed. The file is copied with {@link
+ * FileChannel#transferTo}, which avoids user-space copies where the container allows it.
+ */
+public class RangeDownloadHandler implements DownloadHandler {
+
+    private static final int SC_OK = 200;
+    private static final int SC_PARTIAL_CONTENT = 206;
+    private static final int SC_NOT_FOUND = 404;
+    private static final int SC_RANGE_NOT_SATISFIABLE = 416;
+
+    private final FileExportArtifact artifact;
+
+    public RangeDownloadHandler(FileExportArtifact artifact) {
+        this.artifact = Objects.requireNonNull(artifact, "artifact");
+    }
+
+    @Override
+    public void handleDownloadRequest(DownloadEvent event) throws IOException {
+        VaadinResponse response = event.getResponse();
+        if (artifact.isReleased()) {
+            response.setStatus(SC_NOT_FOUND);
+            return;
+        }
+        long size = artifact.getSize();
+        String etag = "\"" + Long.toHexString(size) + "-" + artifact.getPath().hashCode() + "\"";
+
+        event.setFileName(artifact.getFileName());
+        event.setContentType(artifact.getContentType());
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("ETag", etag);
+
+        long[] range = resolveRange(event.getRequest(), etag, size);
+        if (range == null) {
+            response.setStatus(SC_RANGE_NOT_SATISFIABLE);
+            response.setHeader("Content-Range", "bytes */" + size);
+            return;
+        }
+        long start = range[0];
+        long length = range[1] - range[0] + 1;
+        if (length == size) {
+            response.setStatus(SC_OK);
+        } else {
+            response.setStatus(SC_PARTIAL_CONTENT);
+            response.setHeader(
+                    "Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + size);
+        }
+        response.setHeader("Content-Length", String.valueOf(length));
+        transfer(start, length, event.getOutputStream());
+    }
+
+    private void transfer(long position, long length, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(artifact.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Returns the inclusive byte range to send, the whole file when the request has no usable
+     * range, or {@code null} if the range cannot be satisfied. Multiple ranges are answered with
+     * the whole file.
+     */
+    static long[] resolveRange(VaadinRequest request, String etag, long size) {
+        long[] whole = {0, size - 1};
+        String header = request.getHeader("Range");
+        if (header == null || !header.startsWith("bytes=") || header.contains(",")) {
+            return whole;
+        }
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return whole;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return whole;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            if (start >= size || start > end) {
+                return null;
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return whole;
+        }
+    }
+}
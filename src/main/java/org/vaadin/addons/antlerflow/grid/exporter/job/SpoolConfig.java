@@ -0,0 +1,29 @@
+package org.vaadin.addons.antlerflow.grid.exporter.job;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/** Where and for how long an {@link ExportSpool} keeps finished exports on disk. */
+@Data
+@Builder
+public class SpoolConfig {
+    @Builder.Default
+    private Path directory =
+            Path.of(System.getProperty("java.io.tmpdir"), "advanced-grid-exports");
+
+    /** Largest single export; writing more fails the export. */
+    @Builder.Default private long maxFileBytes = 2L * 1024 * 1024 * 1024;
+
+    /** Largest total size of all spooled exports, including the ones being written. */
+    @Builder.Default private long maxTotalBytes = 10L * 1024 * 1024 * 1024;
+
+    /** How long a finished export can be downloaded before its file is deleted. */
+    @Builder.Default private Duration retention = Duration.ofMinutes(30);
+
+    public static SpoolConfig defaults() {
+        return builder().build();
+    }
+}
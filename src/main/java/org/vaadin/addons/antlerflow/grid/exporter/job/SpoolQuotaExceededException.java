@@ -0,0 +1,11 @@
+package org.vaadin.addons.antlerflow.grid.exporter.job;
+
+import java.io.IOException;
+
+/** Thrown when an export grows beyond the size quota of its {@link ExportSpool}. */
+public class SpoolQuotaExceededException extends IOException {
+
+    public SpoolQuotaExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,52 @@
+package org.vaadin.addons.antlerflow.grid.exporter.streaming;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/** CSV (RFC 4180 quoting) and TSV (control characters replaced by spaces) writer. */
+class DelimitedRowWriter implements RowWriter {
+
+    private final Writer out;
+    private final char delimiter;
+    private final boolean quoting;
+
+    DelimitedRowWriter(Writer out, char delimiter, boolean quoting) {
+        this.out = out;
+        this.delimiter = delimiter;
+        this.quoting = quoting;
+    }
+
+    @Override
+    public void writeHeader(List<String> headers) throws IOException {
+        writeRow(headers.toArray());
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(delimiter);
+            }
+            writeCell(values[i] == null ? "" : String.valueOf(values[i]));
+        }
+        out.write("\r\n");
+    }
+
+    private void writeCell(String value) throws IOException {
+        if (!quoting) {
+            out.write(value.replace('\t', ' ').replace('\r', ' ').replace('\n', ' '));
+            return;
+        }
+        if (value.indexOf(delimiter) < 0
+                && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
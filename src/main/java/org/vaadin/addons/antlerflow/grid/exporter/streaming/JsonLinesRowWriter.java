@@ -0,0 +1,74 @@
+package org.vaadin.addons.antlerflow.grid.exporter.streaming;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/** Writes one JSON object per line, keyed by column header. */
+class JsonLinesRowWriter implements RowWriter {
+
+    private final Writer out;
+    private String[] keys = new String[0];
+
+    JsonLinesRowWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeHeader(List<String> headers) {
+        // Keys are escaped once and reused for every row.
+        keys = headers.stream().map(JsonLinesRowWriter::quote).toArray(String[]::new);
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        out.write('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(i < keys.length ? keys[i] : quote("column" + i));
+            out.write(':');
+            writeValue(values[i]);
+        }
+        out.write("}\n");
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            out.write("null");
+        } else if (value instanceof Boolean
+                || value instanceof Integer
+                || value instanceof Long
+                || value instanceof Short
+                || value instanceof Byte) {
+            out.write(value.toString());
+        } else if (value instanceof Number number && Double.isFinite(number.doubleValue())) {
+            out.write(number.toString());
+        } else {
+            out.write(quote(String.valueOf(value)));
+        }
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
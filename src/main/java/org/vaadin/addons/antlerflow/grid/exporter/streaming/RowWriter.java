@@ -0,0 +1,13 @@
+package org.vaadin.addons.antlerflow.grid.exporter.streaming;
+
+import java.io.IOException;
+import java.util.List;
+
+/** Writes rows of a streaming export in one {@link StreamingFormat}. */
+public interface RowWriter {
+
+    void writeHeader(List<String> headers) throws IOException;
+
+    /** Writes one row; {@code values} is only valid during the call and may be reused. */
+    void writeRow(Object[] values) throws IOException;
+}
@@ -0,0 +1,82 @@
+package org.vaadin.addons.antlerflow.grid.exporter.streaming;
+
+import org.vaadin.addons.antlerflow.grid.exporter.ColumnExtractor;
+import org.vaadin.addons.antlerflow.grid.exporter.ExportColumn;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream of items as rows of a {@link StreamingFormat}. Rows are written as they are
+ * read, so memory use does not depend on the number of rows.
+ *
+ * @param <T> the item type
+ */
+public class StreamingExporter<T> {
+
+    private final StreamingFormat format;
+    private final List<ExportColumn<T>> columns;
+    private final ColumnExtractor<T> extractor;
+    private final int flushInterval;
+
+    /**
+     * @param flushInterval number of rows after which the output is flushed to the client
+     */
+    public StreamingExporter(
+            StreamingFormat format, List<ExportColumn<T>> columns, int flushInterval) {
+        this.format = Objects.requireNonNull(format, "format");
+        this.columns = List.copyOf(columns);
+        this.extractor = new ColumnExtractor<>(this.columns);
+        this.flushInterval = Math.max(1, flushInterval);
+    }
+
+    /** Writes all rows and returns how many were written. The stream is closed. */
+    public long write(Stream<T> items, OutputStream out) throws IOException {
+        return write(items, out, written -> {});
+    }
+
+    /**
+     * Writes all rows and returns how many were written; {@code progress} receives the running
+     * row count after every flush. The stream is closed, the output stream is not.
+     */
+    public long write(Stream<T> items, OutputStream out, LongConsumer progress)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter rowWriter = format.createWriter(writer);
+        rowWriter.writeHeader(columns.stream().map(ExportColumn::header).toList());
+
+        boolean typed = format.isTyped();
+        long written = 0;
+        try (items) {
+            Iterator<T> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                T item = iterator.next();
+                rowWriter.writeRow(typed ? extractor.extract(item) : extractor.extractText(item));
+                if (++written % flushInterval == 0) {
+                    writer.flush();
+                    progress.accept(written);
+                }
+            }
+        }
+        writer.flush();
+        progress.accept(written);
+        return written;
+    }
+
+    public StreamingFormat getFormat() {
+        return format;
+    }
+
+    public List<ExportColumn<T>> getColumns() {
+        return columns;
+    }
+}
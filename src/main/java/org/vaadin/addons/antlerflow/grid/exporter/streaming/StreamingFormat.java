@@ -0,0 +1,67 @@
+package org.vaadin.addons.antlerflow.grid.exporter.streaming;
+
+import java.io.Writer;
+
+/** Text formats that can be written row by row without buffering the whole export. */
+public enum StreamingFormat {
+    CSV("CSV", "csv", "text/csv", false) {
+        @Override
+        public RowWriter createWriter(Writer out) {
+            return new DelimitedRowWriter(out, ',', true);
+        }
+    },
+    TSV("TSV", "tsv", "text/tab-separated-values", false) {
+        @Override
+        public RowWriter createWriter(Writer out) {
+            return new DelimitedRowWriter(out, '\t', false);
+        }
+    },
+    JSON_LINES("JSON Lines", "jsonl", "application/x-ndjson", true) {
+        @Override
+        public RowWriter createWriter(Writer out) {
+            return new JsonLinesRowWriter(out);
+        }
+    };
+
+    private final String label;
+    private final String extension;
+    private final String contentType;
+    private final boolean typed;
+
+    StreamingFormat(String label, String extension, String contentType, boolean typed) {
+        this.label = label;
+        this.extension = extension;
+        this.contentType = contentType;
+        this.typed = typed;
+    }
+
+    public abstract RowWriter createWriter(Writer out);
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /** Whether rows are written from raw values rather than text formatted per column. */
+    public boolean isTyped() {
+        return typed;
+    }
+
+    /** Matches the enum name or the file extension, ignoring case. */
+    public static StreamingFormat fromString(String format) {
+        for (StreamingFormat value : values()) {
+            if (value.name().equalsIgnoreCase(format)
+                    || value.extension.equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,226 @@
+package org.vaadin.addons.antlerflow.grid.exporter.streaming;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.streams.DownloadHandler;
+import org.vaadin.addons.antlerflow.grid.dataprovider.PageWindowDataProvider;
+import org.vaadin.addons.antlerflow.grid.dataprovider.ThreadSafeDataProvider;
+import org.vaadin.addons.antlerflow.grid.exporter.ChunkedDataFetcher;
+import org.vaadin.addons.antlerflow.grid.exporter.ExportColumn;
+import org.vaadin.addons.antlerflow.grid.exporter.ExportSize;
+import org.vaadin.addons.antlerflow.grid.exporter.GridExportConfig;
+import org.vaadin.addons.antlerflow.grid.exporter.GridExportHandler;
+import org.vaadin.addons.antlerflow.grid.metrics.GridMetrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Exports grid rows as CSV, TSV or JSON Lines straight into the HTTP response. Rows are read from
+ * the data provider in chunks of {@link GridExportConfig#getChunkSize()} and written as they
+ * arrive, so exporting millions of rows needs no more heap than a single chunk.
+ *
+ * @param <T> the item type
+ */
+public class StreamingGridExportHandler<T> implements GridExportHandler<T> {
+
+    @Override
+    public void handleExport(
+            final Grid<T> grid,
+            final DataProvider<T, ?> dataProvider,
+            final GridExportConfig<T> config) {
+        Objects.requireNonNull(grid, "grid must not be null");
+        final GridExportConfig<T> effectiveConfig =
+                config != null ? config : GridExportConfig.<T>builder().build();
+
+        final Dialog dialog = new Dialog();
+        dialog.setHeaderTitle(getDialogTitle());
+        final VerticalLayout links = new VerticalLayout();
+        links.setPadding(false);
+        for (StreamingFormat format : getFormats(effectiveConfig)) {
+            final Anchor anchor =
+                    new Anchor(
+                            createDownloadHandler(grid, dataProvider, effectiveConfig, format),
+                            format.getLabel());
+            anchor.getElement().setAttribute("download", true);
+            links.add(anchor);
+        }
+        dialog.add(links);
+        dialog.getFooter().add(new Button("Close", event -> dialog.close()));
+        dialog.open();
+    }
+
+    /**
+     * Creates a download handler writing the export in the given format. Columns, sorting and
+     * filter are captured now, on the UI thread, as are the rows of the current page when a
+     * paginated grid exports {@link ExportSize#CURRENT_DISPLAY}; other rows are fetched when the
+     * download is requested.
+     */
+    public DownloadHandler createDownloadHandler(
+            final Grid<T> grid,
+            final DataProvider<T, ?> dataProvider,
+            final GridExportConfig<T> config,
+            final StreamingFormat format) {
+        final StreamingExporter<T> exporter =
+                new StreamingExporter<>(format, getColumns(grid, config), config.getChunkSize());
+        final ChunkedDataFetcher<T> fetcher = createFetcher(grid, dataProvider, config);
+        final String fileName = getFileName(config, format);
+
+        final String gridId = GridMetrics.gridIdOf(grid);
+
+        return event -> {
+            event.setFileName(fileName);
+            event.setContentType(format.getContentType());
+            final CountingOutputStream out = new CountingOutputStream(event.getOutputStream());
+            final long start = System.nanoTime();
+            long rows = 0;
+            boolean success = false;
+            try {
+                rows = exporter.write(fetcher.stream(), out);
+                success = true;
+            } finally {
+                getMetrics()
+                        .recordExport(
+                                gridId,
+                                format.getExtension(),
+                                System.nanoTime() - start,
+                                rows,
+                                out.getCount(),
+                                success);
+            }
+        };
+    }
+
+    /** Receives export duration, rows and bytes. */
+    protected GridMetrics getMetrics() {
+        return GridMetrics.getDefault();
+    }
+
+    /**
+     * Creates the fetcher reading the exported rows. Rows are read on the download or job thread,
+     * so providers that are not a {@link ThreadSafeDataProvider} are read under the session lock.
+     */
+    protected ChunkedDataFetcher<T> createFetcher(
+            final Grid<T> grid,
+            final DataProvider<T, ?> dataProvider,
+            final GridExportConfig<T> config) {
+        final Query<T, ?> template = GridExportHandler.queryTemplate(grid);
+        if (config.getSize() == ExportSize.ALL) {
+            Objects.requireNonNull(dataProvider, "dataProvider must not be null");
+            final long limit = Optional.ofNullable(config.getLimit()).orElse(Integer.MAX_VALUE);
+            return lockedIfNeeded(
+                    grid, dataProvider, config.createFetcher(dataProvider, template, limit));
+        }
+        final DataProvider<T, ?> shown = grid.getDataProvider();
+        if (shown instanceof PageWindowDataProvider<?> window) {
+            // The window belongs to the UI thread and holds a single page: copy it now, while the
+            // session is locked, instead of reading it from the download or job thread.
+            final List<T> page = currentPage(window, template);
+            return new ChunkedDataFetcher<>(
+                    DataProvider.ofCollection(page),
+                    new Query<T, Object>(),
+                    config.getChunkSize(),
+                    page.size());
+        }
+        return lockedIfNeeded(
+                grid,
+                shown,
+                new ChunkedDataFetcher<>(
+                        shown, template, config.getChunkSize(), Integer.MAX_VALUE));
+    }
+
+    private ChunkedDataFetcher<T> lockedIfNeeded(
+            final Grid<T> grid,
+            final DataProvider<T, ?> dataProvider,
+            final ChunkedDataFetcher<T> fetcher) {
+        if (dataProvider instanceof ThreadSafeDataProvider) {
+            return fetcher;
+        }
+        return grid.getUI()
+                .map(UI::getSession)
+                .or(() -> Optional.ofNullable(VaadinSession.getCurrent()))
+                .map(fetcher::withSessionLock)
+                .orElse(fetcher);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> currentPage(
+            final PageWindowDataProvider<?> window, final Query<T, ?> template) {
+        final Query<T, Object> query =
+                new Query<>(
+                        0,
+                        window.getLimit(),
+                        template.getSortOrders(),
+                        template.getInMemorySorting(),
+                        ((Query<T, Object>) template).getFilter().orElse(null));
+        try (Stream<T> rows = ((PageWindowDataProvider<T>) window).fetch(query)) {
+            return rows.toList();
+        }
+    }
+
+    /** Override to export other values than the ones rendered by the grid columns. */
+    protected List<ExportColumn<T>> getColumns(
+            final Grid<T> grid, final GridExportConfig<T> config) {
+        return ExportColumn.fromGrid(grid, config.getColumnFilter(), config.getValueProviders());
+    }
+
+    protected String getFileName(final GridExportConfig<T> config, final StreamingFormat format) {
+        return Optional.ofNullable(config.getFileName()).orElse("export")
+                + "."
+                + format.getExtension();
+    }
+
+    protected List<StreamingFormat> getFormats(final GridExportConfig<T> config) {
+        return Optional.ofNullable(config.getFormats())
+                .map(
+                        formats ->
+                                formats.stream()
+                                        .map(StreamingFormat::fromString)
+                                        .filter(Objects::nonNull)
+                                        .distinct()
+                                        .toList())
+                .filter(formats -> !formats.isEmpty())
+                .orElseGet(() -> Arrays.asList(StreamingFormat.values()));
+    }
+
+    protected String getDialogTitle() {
+        return "Export";
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -103,7 +103,10 @@ public class XDEVSoftwareGridExportHandler<T> implements GridExportHandler<T> {
                 protected Stream<T> getSortedAndFilteredData(final Grid<T> grid) {
                     final int limit =
                             Optional.ofNullable(config.getLimit()).orElse(Integer.MAX_VALUE);
-                    return dataProvider.fetch(grid.getDataCommunicator().buildQuery(0, limit));
+                    // Fetch in chunks so the provider never has to load every row as one page.
+                    return config.createFetcher(
+                                    dataProvider, GridExportHandler.queryTemplate(grid), limit)
+                            .stream();
                 }
             };
         }
@@ -0,0 +1,43 @@
+package org.vaadin.addons.antlerflow.grid.metrics;
+
+import org.vaadin.addons.antlerflow.grid.metrics.micrometer.MicrometerGridMetrics;
+
+/** Holds the default {@link GridMetrics}, resolved on first use. */
+final class DefaultGridMetrics {
+
+    static final GridMetrics NOOP = new GridMetrics() {};
+
+    private static volatile GridMetrics current;
+
+    private DefaultGridMetrics() {}
+
+    static GridMetrics get() {
+        GridMetrics metrics = current;
+        if (metrics == null) {
+            synchronized (DefaultGridMetrics.class) {
+                if (current == null) {
+                    current = resolve();
+                }
+                metrics = current;
+            }
+        }
+        return metrics;
+    }
+
+    static void set(GridMetrics metrics) {
+        current = metrics;
+    }
+
+    private static GridMetrics resolve() {
+        try {
+            Class.forName(
+                    "io.micrometer.core.instrument.MeterRegistry",
+                    false,
+                    DefaultGridMetrics.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return NOOP;
+        }
+        // Only loaded when Micrometer is present.
+        return MicrometerGridMetrics.global();
+    }
+}
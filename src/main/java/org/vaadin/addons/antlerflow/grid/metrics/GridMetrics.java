@@ -0,0 +1,56 @@
+package org.vaadin.addons.antlerflow.grid.metrics;
+
+import com.vaadin.flow.component.Component;
+
+import java.util.Objects;
+
+/**
+ * Receives timings and counters from grids, data providers and exporters. Every measurement is
+ * tagged with a grid id so slow grids can be told apart. All methods default to doing nothing;
+ * implementations must be thread-safe, as prefetches, deferred counts and exports report from
+ * background threads.
+ *
+ * <p>{@link #getDefault()} binds to Micrometer's global registry when Micrometer is on the
+ * classpath and does nothing otherwise.
+ */
+public interface GridMetrics {
+
+    /** A backend fetch of {@code rows} rows that took {@code nanos}. */
+    default void recordFetch(String gridId, long nanos, int rows) {}
+
+    /** A total count that took {@code nanos}. */
+    default void recordCount(String gridId, long nanos) {}
+
+    /** A lookup in the named cache ({@code "page"}, {@code "count"}) that hit or missed. */
+    default void recordCacheAccess(String gridId, String cache, boolean hit) {}
+
+    /** Server time from a page change until the response with the new page is written. */
+    default void recordPageRender(String gridId, long nanos) {}
+
+    /** A finished or failed export. */
+    default void recordExport(
+            String gridId, String format, long nanos, long rows, long bytes, boolean success) {}
+
+    static GridMetrics noop() {
+        return DefaultGridMetrics.NOOP;
+    }
+
+    static GridMetrics getDefault() {
+        return DefaultGridMetrics.get();
+    }
+
+    /** Replaces the metrics used by components created or exporting from now on. */
+    static void setDefault(GridMetrics metrics) {
+        DefaultGridMetrics.set(Objects.requireNonNull(metrics, "metrics"));
+    }
+
+    /** The id of the component, or of its closest ancestor that has one, or {@code "default"}. */
+    static String gridIdOf(Component component) {
+        for (Component c = component; c != null; c = c.getParent().orElse(null)) {
+            if (c.getId().isPresent()) {
+                return c.getId().get();
+            }
+        }
+        return "default";
+    }
+}
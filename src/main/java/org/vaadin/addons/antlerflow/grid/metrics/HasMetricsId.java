@@ -0,0 +1,12 @@
+package org.vaadin.addons.antlerflow.grid.metrics;
+
+/**
+ * Implemented by data providers that report to {@link GridMetrics} themselves. {@code
+ * AdvancedGrid} tags them with its own grid id unless another id was set explicitly.
+ */
+public interface HasMetricsId {
+
+    String getMetricsId();
+
+    void setMetricsId(String metricsId);
+}
@@ -0,0 +1,127 @@
+package org.vaadin.addons.antlerflow.grid.metrics.micrometer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.vaadin.addons.antlerflow.grid.metrics.GridMetrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Publishes grid metrics to a Micrometer registry. Latencies are timers with percentile
+ * histograms, cache lookups are counters tagged {@code result=hit|miss}, so the hit ratio is
+ * {@code hit / (hit + miss)}.
+ */
+public class MicrometerGridMetrics implements GridMetrics {
+
+    private static final String PREFIX = "advanced.grid.";
+    private static final String GRID = "grid";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Meters by name and tag values, so hot paths don't build and look up a meter on every call.
+     */
+    private final Map<List<String>, Meter> meters = new ConcurrentHashMap<>();
+
+    public MicrometerGridMetrics(MeterRegistry registry) {
+        this.registry = Objects.requireNonNull(registry, "registry");
+    }
+
+    /** Binds to Micrometer's global composite registry, which Spring Boot populates. */
+    public static MicrometerGridMetrics global() {
+        return new MicrometerGridMetrics(Metrics.globalRegistry);
+    }
+
+    @Override
+    public void recordFetch(String gridId, long nanos, int rows) {
+        timer("fetch", gridId).record(nanos, TimeUnit.NANOSECONDS);
+        meter(
+                        List.of("fetch.rows", gridId),
+                        () ->
+                                DistributionSummary.builder(PREFIX + "fetch.rows")
+                                        .tag(GRID, gridId)
+                                        .register(registry))
+                .record(rows);
+    }
+
+    @Override
+    public void recordCount(String gridId, long nanos) {
+        timer("count", gridId).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordCacheAccess(String gridId, String cache, boolean hit) {
+        String result = hit ? "hit" : "miss";
+        meter(
+                        List.of("cache.requests", gridId, cache, result),
+                        () ->
+                                Counter.builder(PREFIX + "cache.requests")
+                                        .tag(GRID, gridId)
+                                        .tag("cache", cache)
+                                        .tag("result", result)
+                                        .register(registry))
+                .increment();
+    }
+
+    @Override
+    public void recordPageRender(String gridId, long nanos) {
+        timer("page.render", gridId).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordExport(
+            String gridId, String format, long nanos, long rows, long bytes, boolean success) {
+        String outcome = success ? "success" : "failure";
+        meter(
+                        List.of("export", gridId, format, outcome),
+                        () ->
+                                Timer.builder(PREFIX + "export")
+                                        .tag(GRID, gridId)
+                                        .tag("format", format)
+                                        .tag("outcome", outcome)
+                                        .publishPercentileHistogram()
+                                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        meter(
+                        List.of("export.rows", gridId, format),
+                        () ->
+                                DistributionSummary.builder(PREFIX + "export.rows")
+                                        .tag(GRID, gridId)
+                                        .tag("format", format)
+                                        .register(registry))
+                .record(rows);
+        meter(
+                        List.of("export.bytes", gridId, format),
+                        () ->
+                                DistributionSummary.builder(PREFIX + "export.bytes")
+                                        .tag(GRID, gridId)
+                                        .tag("format", format)
+                                        .baseUnit("bytes")
+                                        .register(registry))
+                .record(bytes);
+    }
+
+    private Timer timer(String name, String gridId) {
+        return meter(
+                List.of(name, gridId),
+                () ->
+                        Timer.builder(PREFIX + name)
+                                .tag(GRID, gridId)
+                                .publishPercentileHistogram()
+                                .register(registry));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <M extends Meter> M meter(List<String> key, Supplier<M> factory) {
+        return (M) meters.computeIfAbsent(key, k -> factory.get());
+    }
+}
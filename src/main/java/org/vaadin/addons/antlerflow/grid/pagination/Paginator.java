@@ -4,6 +4,7 @@ import com.vaadin.flow.component.*;
 import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.shared.Registration;
 import lombok.Getter;
+import org.vaadin.addons.antlerflow.grid.dataprovider.count.ItemCount;
 
 @Tag("af-paginator")
 @JsModule("./antlerflow/advanced-grid/pagination/paginator.ts")
@@ -54,7 +55,17 @@ public class Paginator extends Component {
     }
 
     public void setTotalItems(long totalItems) {
-        getElement().setProperty("totalItems", totalItems);
+        setItemCount(ItemCount.exact(totalItems));
+    }
+
+    /**
+     * Sets the total together with its precision. Non-exact totals are rendered as "10,000+",
+     * "about 2.3M" or not at all, and hide the "last page" button.
+     */
+    public void setItemCount(ItemCount itemCount) {
+        getElement().setProperty("totalItems", itemCount.value());
+        getElement().setProperty("countPrecision", itemCount.precision().getClientName());
+        getElement().setProperty("hasMore", itemCount.hasMore());
     }
 
     @Synchronize(PAGE_CHANGE_EVENT)
@@ -66,6 +77,22 @@ public class Paginator extends Component {
         getElement().setProperty("totalPages", totalPages);
     }
 
+    public boolean isCounting() {
+        return getElement().getProperty("counting", false);
+    }
+
+    /**
+     * Marks the total as not yet known. While counting, the summary shows a placeholder instead of
+     * the total and navigation is only bounded by the first page.
+     */
+    public void setCounting(boolean counting) {
+        getElement().setProperty("counting", counting);
+    }
+
+    public void setCountingLabel(String countingLabel) {
+        getElement().setProperty("countingLabel", countingLabel);
+    }
+
     public void setMaxButtons(int maxButtons) {
         getElement().setProperty("maxButtons", maxButtons);
     }
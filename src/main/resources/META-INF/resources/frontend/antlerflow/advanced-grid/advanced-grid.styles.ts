@@ -43,6 +43,46 @@ export const advancedGridStyles = css`
         min-height: 0; /* allows vaadin-grid internal scroller to size correctly */
         box-sizing: border-box;
         display: flex;
+        position: relative;
+    }
+
+    .loading-indicator {
+        position: absolute;
+        top: 0;
+        left: 0;
+        right: 0;
+        height: 3px;
+        z-index: 1;
+        overflow: hidden;
+        background: var(--af-loading-track-color, transparent);
+    }
+
+    .loading-indicator[hidden] {
+        display: none;
+    }
+
+    .loading-indicator::before {
+        content: '';
+        position: absolute;
+        top: 0;
+        bottom: 0;
+        width: 40%;
+        background: var(--af-loading-color, var(--lumo-primary-color, #1676f3));
+        animation: af-loading 1.2s ease-in-out infinite;
+    }
+
+    @keyframes af-loading {
+        from {
+            left: -40%;
+        }
+        to {
+            left: 100%;
+        }
+    }
+
+    :host([loading]) ::slotted([slot="grid"]) {
+        opacity: var(--af-loading-opacity, 0.6);
+        transition: opacity 0.2s;
     }
 
     ::slotted([slot="grid"]) {
@@ -5,6 +5,7 @@ import {property} from "lit/decorators.js";
 class AdvancedGridElement extends LitElement {
 
     @property({type: Boolean}) summaryVisible = true;
+    @property({type: Boolean, reflect: true}) loading = false;
 
     static styles = advancedGridStyles;
 
@@ -24,6 +25,7 @@ class AdvancedGridElement extends LitElement {
                 </div>
 
                 <div class="grid-host" part="grid-host">
+                    <div class="loading-indicator" part="loading-indicator" ?hidden=${!this.loading}></div>
                     <slot name="grid">
                         <div part="grid-placeholder">No grid provided</div>
                     </slot>
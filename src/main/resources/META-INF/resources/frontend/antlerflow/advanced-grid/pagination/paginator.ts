@@ -2,6 +2,8 @@ import {LitElement, html, nothing} from 'lit';
 import {customElement, property} from 'lit/decorators.js';
 import {paginatorStyles} from './paginator.styles.js';
 
+type CountPrecision = 'exact' | 'at-least' | 'estimated' | 'unknown';
+
 type PageChangeDetail = {
     page: number;        // 1-based
     pageSize: number;
@@ -29,9 +31,22 @@ export class Paginator extends LitElement {
 
     @property({type: Boolean, reflect: true}) disabled = false;
 
+    /** Set while the total is still being computed; navigation is then only bounded below. */
+    @property({type: Boolean, reflect: true}) counting = false;
+    @property({type: String, attribute: 'counting-label'}) countingLabel = 'counting…';
+
+    /** How far totalItems can be trusted: 'exact', 'at-least', 'estimated' or 'unknown'. */
+    @property({type: String, attribute: 'count-precision'}) countPrecision: CountPrecision = 'exact';
+    /** Whether rows exist after the current page; used when the total is not exact. */
+    @property({type: Boolean, attribute: 'has-more'}) hasMore = false;
+
     static styles = paginatorStyles;
 
     private readonly numberFormat = new Intl.NumberFormat('en-US', {maximumFractionDigits: 0});
+    private readonly compactNumberFormat = new Intl.NumberFormat('en-US', {
+        notation: 'compact',
+        maximumFractionDigits: 1,
+    });
 
     private _pageSizeOptionsCache = '';
     private _parsedPageSizesCache: number[] = [];
@@ -46,15 +61,24 @@ export class Paginator extends LitElement {
         return Number.isFinite(n) && n > 0 ? n : 0;
     }
 
+    /** Whether totalItems is exact and final, so the last page is known. */
+    private get totalKnown(): boolean {
+        return !this.counting && this.countPrecision === 'exact';
+    }
+
     private get computedTotalPages(): number {
         const explicit = Number(this.totalPages || 0);
-        if (explicit > 0) return Math.max(1, explicit);
         const size = this.normalizePageSize(this.pageSize);
         const items = this.normalizeTotalItems(this.totalItems);
-        return Math.max(1, Math.ceil(items / size));
+        const known = explicit > 0 ? Math.max(1, explicit) : Math.max(1, Math.ceil(items / size));
+        if (this.totalKnown) return known;
+        // A stale or approximate total must never hide the current page or the one after it.
+        const reachable = this.page + (this.counting || this.hasMore ? 1 : 0);
+        return Math.max(known, reachable);
     }
 
     private clampPage(next: number): number {
+        if (!this.totalKnown) return Math.max(1, next);
         const tp = this.computedTotalPages;
         return Math.min(tp, Math.max(1, next));
     }
@@ -195,6 +219,9 @@ export class Paginator extends LitElement {
         const size = this.normalizePageSize(this.pageSize);
         const offset = this.computedOffset;
 
+        if (this.counting || (!this.totalKnown && this.hasMore)) {
+            return {from: offset + 1, to: offset + size, total};
+        }
         if (total === 0) return {from: 0, to: 0, total};
 
         const from = Math.min(total, offset + 1);
@@ -202,11 +229,29 @@ export class Paginator extends LitElement {
         return {from, to, total};
     }
 
+    private renderTotal(total: number) {
+        if (this.counting) {
+            return html`of <span part="counting">${this.countingLabel}</span>`;
+        }
+        switch (this.countPrecision) {
+            case 'at-least':
+                return html`of <strong>${this.numberFormat.format(total)}+</strong>`;
+            case 'estimated':
+                return html`of about <strong>${this.compactNumberFormat.format(total)}</strong>`;
+            case 'unknown':
+                return nothing;
+            default:
+                return html`of <strong>${this.numberFormat.format(total)}</strong>`;
+        }
+    }
+
     render() {
         const tp = this.computedTotalPages;
         const current = this.page;
         const isFirst = current === 1;
-        const isLast = current === tp;
+        const isLast = this.totalKnown
+            ? current === tp
+            : !this.counting && !this.hasMore && current >= tp;
 
         const {from, to, total} = this.range;
 
@@ -240,10 +285,10 @@ export class Paginator extends LitElement {
                 </div>
 
                 <div part="page-controls" class="page-controls">
-                    ${this.showSummaryText && total > 0 ? html`
+                    ${this.showSummaryText && (total > 0 || this.counting) ? html`
                         <span part="summary" class="summary" aria-live="polite">
                             Showing <strong>${from}</strong> - <strong>${to}</strong>
-                            of <strong>${this.numberFormat.format(total)}</strong>
+                            ${this.renderTotal(total)}
                         </span>
                     ` : nothing}
 
@@ -286,9 +331,9 @@ export class Paginator extends LitElement {
                         >›
                         </button>
 
-                        ${this.hideEdges ? nothing : html`
+                        ${this.hideEdges || (!this.totalKnown && !this.counting) ? nothing : html`
                             <button class="page-button last-page" part="page-button"
-                                    ?disabled=${this.disabled || isLast}
+                                    ?disabled=${this.disabled || isLast || this.counting}
                                     @click=${this.onLastClick}
                                     aria-label="Last page"
                             >»
@@ -305,14 +350,14 @@ export class Paginator extends LitElement {
                                     type="number"
                                     inputmode="numeric"
                                     min="1"
-                                    .max=${String(tp)}
+                                    .max=${this.totalKnown ? String(tp) : ''}
                                     .value=${String(current)}
                                     ?disabled=${this.disabled}
                                     aria-label="Go to page"
                                     @change=${this.onPageJumpChange}
                                     @keydown=${this.onPageJumpKeyDown}
                             />
-                            <span aria-hidden="true">/ ${tp}</span>
+                            <span aria-hidden="true">/ ${this.totalKnown ? tp : '…'}</span>
                         </div>
                     ` : nothing}
                 </div>
@@ -0,0 +1,102 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.vaadin.flow.data.provider.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+class IndexedListDataProviderTest {
+
+    private final AtomicInteger evaluations = new AtomicInteger();
+
+    private IndexedListDataProvider<Integer> dataProvider;
+
+    @BeforeEach
+    void setUp() {
+        List<Integer> items = new ArrayList<>(IntStream.range(0, 1000).boxed().toList());
+        dataProvider = new IndexedListDataProvider<>(items);
+    }
+
+    private int evaluationsFor(int divisor, int expectedSize) {
+        evaluations.set(0);
+        dataProvider.setFilter(new Multiple(divisor, evaluations));
+        assertEquals(expectedSize, dataProvider.size(new Query<>()));
+        return evaluations.get();
+    }
+
+    @Test
+    void narrowingFilterEvaluatesPreviousMatchesOnly() {
+        assertEquals(1000, evaluationsFor(2, 500));
+        assertEquals(500, evaluationsFor(4, 250));
+        assertEquals(250, evaluationsFor(8, 125));
+    }
+
+    @Test
+    void wideningFilterReusesEarlierMatchSet() {
+        evaluationsFor(2, 500);
+        evaluationsFor(4, 250);
+
+        assertEquals(0, evaluationsFor(2, 500));
+    }
+
+    @Test
+    void forgetsMatchSetsOnRefreshAll() {
+        evaluationsFor(2, 500);
+        dataProvider.refreshAll();
+
+        assertEquals(1000, evaluationsFor(4, 250));
+    }
+
+    @Test
+    void skipsMatchSetsOfMostItems() {
+        evaluationsFor(1, 1000);
+
+        assertEquals(1000, evaluationsFor(2, 500));
+    }
+
+    @Test
+    void remembersNoMatchSetsWithoutBudget() {
+        dataProvider.setMatchSetBudgetBytes(0);
+        evaluationsFor(2, 500);
+
+        assertEquals(1000, evaluationsFor(4, 250));
+    }
+
+    @Test
+    void evictsOldestMatchSetsOverBudget() {
+        dataProvider.setMatchSetBudgetBytes(8 * 500);
+        evaluationsFor(2, 500);
+        evaluationsFor(3, 334);
+
+        assertEquals(334, evaluationsFor(9, 112));
+        assertEquals(1000, evaluationsFor(4, 250));
+    }
+
+    @Test
+    void rejectsNegativeBudget() {
+        assertThrows(IllegalArgumentException.class, () -> dataProvider.setMatchSetBudgetBytes(-1));
+    }
+
+    /** Matches multiples of the divisor and counts its evaluations. */
+    private record Multiple(int divisor, AtomicInteger evaluations)
+            implements RefinablePredicate<Integer> {
+
+        @Override
+        public boolean test(Integer item) {
+            evaluations.incrementAndGet();
+            return item % divisor == 0;
+        }
+
+        @Override
+        public boolean refines(RefinablePredicate<Integer> previous) {
+            return previous instanceof Multiple other && divisor % other.divisor == 0;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class KeysetDataProviderTest {
+
+    private static final List<Integer> ROWS = IntStream.range(0, 100).boxed().toList();
+
+    private final List<KeysetQuery<Integer>> queries = new ArrayList<>();
+
+    private final KeysetDataProvider<Integer, Integer> provider =
+            new KeysetDataProvider<>(this::fetch, this::count, "id", id -> id);
+
+    /** Rows divisible by the filter, sorted by id, seeking past the boundary like SQL would. */
+    private List<Integer> fetch(KeysetQuery<Integer> query) {
+        queries.add(query);
+        boolean descending =
+                query.effectiveSortOrders().getFirst().getDirection() == SortDirection.DESCENDING;
+        Stream<Integer> rows =
+                ROWS.stream()
+                        .filter(id -> id % query.filter().orElse(1) == 0)
+                        .sorted(descending ? Comparator.reverseOrder() : Comparator.naturalOrder());
+        if (query.isKeyset()) {
+            int boundary = (Integer) query.boundary().getFirst();
+            rows = rows.filter(id -> descending ? id < boundary : id > boundary);
+        } else {
+            rows = rows.skip(query.offset());
+        }
+        return rows.limit(query.limit()).toList();
+    }
+
+    private long count(Optional<Integer> filter) {
+        return ROWS.stream().filter(id -> id % filter.orElse(1) == 0).count();
+    }
+
+    private List<Integer> page(int offset, Integer filter, SortDirection direction) {
+        Query<Integer, Integer> query =
+                new Query<>(offset, 10, List.of(new QuerySortOrder("id", direction)), null, filter);
+        return provider.fetch(query).toList();
+    }
+
+    private List<Integer> page(int offset) {
+        return page(offset, null, SortDirection.ASCENDING);
+    }
+
+    @Test
+    void seeksFromThePreviousPage() {
+        assertEquals(IntStream.range(0, 10).boxed().toList(), page(0));
+        assertEquals(IntStream.range(10, 20).boxed().toList(), page(10));
+
+        assertFalse(queries.get(0).isKeyset());
+        assertEquals(List.of(9), queries.get(1).boundary());
+        assertFalse(queries.get(1).backward());
+    }
+
+    @Test
+    void reversesRowsOfBackwardPages() {
+        page(50);
+        List<Integer> previous = page(40);
+
+        KeysetQuery<Integer> backward = queries.get(1);
+        assertTrue(backward.backward());
+        assertEquals(List.of(50), backward.boundary());
+        assertEquals(
+                SortDirection.DESCENDING,
+                backward.effectiveSortOrders().getFirst().getDirection());
+        assertEquals(IntStream.range(40, 50).boxed().toList(), previous);
+    }
+
+    @Test
+    void seeksInDescendingOrder() {
+        page(0, null, SortDirection.DESCENDING);
+        List<Integer> next = page(10, null, SortDirection.DESCENDING);
+
+        assertEquals(List.of(90), queries.get(1).boundary());
+        assertEquals(List.of(89, 88, 87, 86, 85, 84, 83, 82, 81, 80), next);
+    }
+
+    @Test
+    void scopesBoundariesByFilter() {
+        page(0, 2, SortDirection.ASCENDING);
+        List<Integer> other = page(10, 3, SortDirection.ASCENDING);
+
+        // The boundary of the first page belongs to the other filter; it must not be reused.
+        assertNull(queries.get(1).boundary());
+        assertEquals(10, queries.get(1).offset());
+        assertEquals(List.of(30, 33, 36, 39, 42, 45, 48, 51, 54, 57), other);
+
+        page(20, 3, SortDirection.ASCENDING);
+        assertEquals(List.of(57), queries.get(2).boundary());
+    }
+
+    @Test
+    void rejectsUnregisteredSortProperties() {
+        List<QuerySortOrder> byName = List.of(new QuerySortOrder("name", SortDirection.ASCENDING));
+        Query<Integer, Integer> query = new Query<>(0, 10, byName, null, null);
+
+        assertThrows(IllegalStateException.class, () -> provider.fetch(query).toList());
+        assertTrue(queries.isEmpty());
+
+        provider.addKeyProperty("name", id -> "row" + id);
+        assertEquals(10, provider.fetch(query).count());
+    }
+}
@@ -0,0 +1,187 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.vaadin.flow.function.ValueProvider;
+import com.vaadin.frontendtools.internal.commons.lang3.Strings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+class TrigramIndexTest {
+
+    private final Person smith = new Person(1, "John", "Smith");
+    private final Person smithers = new Person(2, "Waylon", "Smithers");
+    private final Person jones = new Person(3, "Jo", "Jones");
+
+    private TrigramIndex<Person> index;
+
+    @BeforeEach
+    void setUp() {
+        index =
+                new TrigramIndex<>(
+                        List.<ValueProvider<Person, String>>of(Person::first, Person::last));
+        index.rebuild(List.of(smith, smithers, jones));
+    }
+
+    private Object[] search(String query) {
+        return index.search(TrigramIndex.normalize(query));
+    }
+
+    private List<Integer> idsOf(Object[] people) {
+        return Arrays.stream(people).map(person -> ((Person) person).id()).toList();
+    }
+
+    @Test
+    void findsItemsContainingQueryIgnoringCase() {
+        assertArrayEquals(new Object[] {smith, smithers}, search("MITH"));
+        assertArrayEquals(new Object[] {smithers}, search("thers"));
+        assertArrayEquals(new Object[0], search("smyth"));
+    }
+
+    @Test
+    void doesNotMatchAcrossFields() {
+        assertArrayEquals(new Object[0], search("johnsmith"));
+        assertArrayEquals(new Object[] {jones}, search("jon"));
+    }
+
+    @Test
+    void scansForQueriesShorterThanTrigram() {
+        assertArrayEquals(new Object[] {smith, jones}, search("Jo"));
+        assertArrayEquals(new Object[] {smith, smithers, jones}, search("s"));
+    }
+
+    @Test
+    void updatesIncrementally() {
+        Person brown = new Person(4, "Ann", "Brown");
+        index.add(brown);
+        index.remove(smith);
+        smithers.last = "Burns";
+        index.update(smithers);
+
+        assertArrayEquals(new Object[0], search("smith"));
+        assertArrayEquals(new Object[] {smithers, brown}, search("B"));
+        assertArrayEquals(new Object[] {smithers}, search("urns"));
+    }
+
+    @Test
+    void indexesEqualItemsSeparately() {
+        Person twin = new Person(1, "John", "Smith");
+        index.add(twin);
+
+        assertArrayEquals(new Object[] {smith, smithers, twin}, search("smith"));
+
+        index.remove(twin);
+
+        assertArrayEquals(new Object[] {smith, smithers}, search("smith"));
+        assertSame(smith, search("smith")[0]);
+    }
+
+    @Test
+    void followsItemsWhoseHashCodeChanges() {
+        int hashCode = smith.hashCode();
+        smith.last = "Smyth";
+        index.update(smith);
+
+        assertNotEquals(hashCode, smith.hashCode());
+        assertArrayEquals(new Object[] {smithers}, search("smith"));
+        assertArrayEquals(new Object[] {smith}, search("smyth"));
+
+        index.remove(smith);
+
+        assertArrayEquals(new Object[0], search("smyth"));
+        assertArrayEquals(new Object[] {smithers, jones}, search("s"));
+    }
+
+    @Test
+    void ignoresUpdatesOfCopies() {
+        index.update(new Person(2, "Waylon", "Burns"));
+
+        assertArrayEquals(new Object[0], search("burns"));
+        assertArrayEquals(new Object[] {smithers}, search("thers"));
+    }
+
+    @Test
+    void keepsAnsweringAfterCompaction() {
+        List<Person> people =
+                IntStream.range(0, 20).mapToObj(i -> new Person(i, "Name", "Last" + i)).toList();
+        index.rebuild(people);
+        // Removing six of twenty compacts the numbering.
+        for (int i = 0; i < 12; i += 2) {
+            index.remove(people.get(i));
+        }
+
+        assertArrayEquals(new Object[] {people.get(13)}, search("last13"));
+        assertEquals(
+                List.of(1, 3, 5, 7, 9, 11, 12, 13, 14, 15, 16, 17, 18, 19), idsOf(search("n")));
+
+        Person renamed = people.get(13);
+        renamed.last = "Other";
+        index.update(renamed);
+        index.remove(people.get(15));
+        index.add(new Person(20, "Name", "Last20"));
+
+        assertArrayEquals(new Object[] {renamed}, search("other"));
+        assertArrayEquals(new Object[0], search("last13"));
+        assertEquals(
+                List.of(1, 3, 5, 7, 9, 11, 12, 14, 16, 17, 18, 19, 20), idsOf(search("last")));
+    }
+
+    @Test
+    void foldsCaseLikeStringsCi() {
+        String[][] pairs = {
+            {"İstanbul", "istanbul"}, {"ΟΔΟΣ", "οδοσ"}, {"Straße", "STRASSE"}, {"ÉCOLE", "école"}
+        };
+        for (String[] pair : pairs) {
+            Person person = new Person(9, pair[0], "");
+            index.rebuild(List.of(person));
+            assertEquals(
+                    Strings.CI.contains(pair[0], pair[1]), search(pair[1]).length == 1, pair[0]);
+        }
+    }
+
+    /** A mutable bean, equal by all its fields. */
+    private static final class Person {
+        private final int id;
+        private final String first;
+        private String last;
+
+        Person(int id, String first, String last) {
+            this.id = id;
+            this.first = first;
+            this.last = last;
+        }
+
+        int id() {
+            return id;
+        }
+
+        String first() {
+            return first;
+        }
+
+        String last() {
+            return last;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Person person
+                    && id == person.id
+                    && first.equals(person.first)
+                    && last.equals(person.last);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, first, last);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+class PageCacheTest {
+
+    private static PageCache<String, String> cache(int maxEntries, EvictionPolicy policy) {
+        return new PageCache<>(
+                PageCacheConfig.builder().maxEntries(maxEntries).evictionPolicy(policy).build(),
+                value -> value.length());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() {
+        PageCache<String, String> cache = cache(2, EvictionPolicy.LRU);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+    }
+
+    @Test
+    void containsKeyLeavesRecencyAlone() {
+        PageCache<String, String> cache = cache(2, EvictionPolicy.LRU);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        assertTrue(cache.containsKey("a"));
+        cache.put("c", "3");
+
+        assertFalse(cache.containsKey("a"));
+        assertTrue(cache.containsKey("b"));
+        assertEquals(new CacheStats(0, 0, 1, 2, 2), cache.getStats());
+    }
+
+    @Test
+    void evictsLeastFrequentlyUsedEntry() {
+        PageCache<String, String> cache = cache(2, EvictionPolicy.LFU);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+        cache.put("c", "3");
+
+        assertTrue(cache.containsKey("a"));
+        assertFalse(cache.containsKey("b"));
+    }
+
+    @Test
+    void boundsTotalWeight() {
+        PageCache<String, String> cache =
+                new PageCache<>(
+                        PageCacheConfig.builder().maxEntries(10).maxWeightBytes(5).build(),
+                        String::length);
+        cache.put("a", "abc");
+        cache.put("b", "de");
+        cache.put("c", "f");
+        cache.put("huge", "abcdef");
+
+        assertFalse(cache.containsKey("a"));
+        assertTrue(cache.containsKey("b"));
+        assertTrue(cache.containsKey("c"));
+        assertFalse(cache.containsKey("huge"));
+        assertEquals(3, cache.getStats().weightBytes());
+    }
+
+    @Test
+    void expiresEntriesAfterTimeToLive() throws InterruptedException {
+        PageCache<String, String> cache =
+                new PageCache<>(
+                        PageCacheConfig.builder().timeToLive(Duration.ofMillis(1)).build(),
+                        String::length);
+        cache.put("a", "1");
+        Thread.sleep(5);
+
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.getStats().misses());
+    }
+}
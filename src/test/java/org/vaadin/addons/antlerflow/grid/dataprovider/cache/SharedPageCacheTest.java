@@ -0,0 +1,192 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class SharedPageCacheTest {
+
+    private static SharedPageCache newRegion() {
+        return SharedPageCache.region("test-" + UUID.randomUUID());
+    }
+
+    private static void awaitWaiting(Thread thread) {
+        while (thread.getState() != Thread.State.WAITING
+                && thread.getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    void loadsOnceAndServesFromCache() {
+        SharedPageCache region = newRegion();
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            String value = region.get("key", () -> "page" + loads.incrementAndGet(), v -> 1);
+            assertEquals("page1", value);
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void coalescesConcurrentMisses() throws Exception {
+        SharedPageCache region = newRegion();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        AtomicReference<String> waited = new AtomicReference<>();
+
+        Thread leader =
+                new Thread(
+                        () ->
+                                region.get(
+                                        "key",
+                                        () -> {
+                                            loads.incrementAndGet();
+                                            loading.countDown();
+                                            await(release);
+                                            return "page";
+                                        },
+                                        v -> 1));
+        leader.start();
+        loading.await();
+        Thread waiter =
+                new Thread(
+                        () ->
+                                waited.set(
+                                        region.get(
+                                                "key",
+                                                () -> "page" + loads.incrementAndGet(),
+                                                v -> 1)));
+        waiter.start();
+        awaitWaiting(waiter);
+        release.countDown();
+        leader.join();
+        waiter.join();
+
+        assertEquals("page", waited.get());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void waiterRetriesWhenLeaderIsCancelled() throws Exception {
+        SharedPageCache region = newRegion();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Throwable> leaderFailure = new AtomicReference<>();
+        AtomicReference<Object> waited = new AtomicReference<>();
+
+        Thread leader =
+                new Thread(
+                        () -> {
+                            try {
+                                region.get(
+                                        "key",
+                                        () -> {
+                                            loading.countDown();
+                                            await(release);
+                                            throw new CancellationException("superseded");
+                                        },
+                                        v -> 1);
+                            } catch (Throwable t) {
+                                leaderFailure.set(t);
+                            }
+                        });
+        leader.start();
+        loading.await();
+        Thread waiter =
+                new Thread(
+                        () -> {
+                            try {
+                                waited.set(region.get("key", () -> "page", v -> 1));
+                            } catch (Throwable t) {
+                                waited.set(t);
+                            }
+                        });
+        waiter.start();
+        awaitWaiting(waiter);
+        release.countDown();
+        leader.join();
+        waiter.join();
+
+        assertEquals(CancellationException.class, leaderFailure.get().getClass());
+        assertEquals("page", waited.get());
+    }
+
+    @Test
+    void loadsDirectlyWhenLeaderHangs() throws Exception {
+        SharedPageCache region = newRegion();
+        region.setMaxWait(Duration.ofMillis(50));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread leader =
+                new Thread(
+                        () ->
+                                region.get(
+                                        "key",
+                                        () -> {
+                                            loading.countDown();
+                                            await(release);
+                                            return "hung";
+                                        },
+                                        v -> 1));
+        leader.start();
+        loading.await();
+        try {
+            assertEquals("page", region.get("key", () -> "page", v -> 1));
+            // The direct load is cached for later callers while the leader still runs.
+            assertEquals("page", region.get("key", () -> "other", v -> 1));
+        } finally {
+            release.countDown();
+            leader.join();
+        }
+    }
+
+    @Test
+    void propagatesLoaderFailure() {
+        SharedPageCache region = newRegion();
+
+        assertThrows(
+                IllegalStateException.class,
+                () ->
+                        region.get(
+                                "key",
+                                () -> {
+                                    throw new IllegalStateException("backend down");
+                                },
+                                v -> 1));
+        assertEquals("page", region.get("key", () -> "page", v -> 1));
+    }
+
+    @Test
+    void invalidationForcesReload() {
+        SharedPageCache region = newRegion();
+        AtomicInteger loads = new AtomicInteger();
+
+        region.get("key", () -> "page" + loads.incrementAndGet(), v -> 1);
+        region.invalidate("key");
+        assertEquals("page2", region.get("key", () -> "page" + loads.incrementAndGet(), v -> 1));
+
+        SharedPageCache.invalidateRegion(region.getName());
+        assertEquals("page3", region.get("key", () -> "page" + loads.incrementAndGet(), v -> 1));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.columnar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ColumnarDataProviderTest {
+
+    private static final List<Item> ITEMS =
+            List.of(
+                    new Item(0, "Smith", 30),
+                    new Item(1, "jones", null),
+                    new Item(2, "Brown", 25),
+                    new Item(3, "Smith", 40),
+                    new Item(4, null, 35),
+                    new Item(5, "Adams", 20));
+
+    private final ColumnarDataProvider<Item> provider =
+            ColumnarDataProvider.<Item>builder()
+                    .longColumn("id", Item::id)
+                    .stringColumn("name", Item::name)
+                    .intColumn("age", Item::age)
+                    .id(Item::id)
+                    .build(
+                            ITEMS,
+                            row ->
+                                    new Item(
+                                            row.getLong("id"),
+                                            row.getString("name"),
+                                            row.isNull("age") ? null : row.getInt("age")));
+
+    private List<Long> ids(ColumnFilter filter, QuerySortOrder... sortOrders) {
+        Query<Item, ColumnFilter> query = new Query<>(0, 100, List.of(sortOrders), null, filter);
+        return provider.fetch(query).map(Item::id).toList();
+    }
+
+    @Test
+    void filtersOnColumns() {
+        assertEquals(
+                List.of(3L),
+                ids(
+                        ColumnFilter.and(
+                                ColumnFilter.contains("name", "SMI"),
+                                ColumnFilter.between("age", 35, null))));
+        assertEquals(
+                List.of(1L, 4L),
+                ids(
+                        ColumnFilter.or(
+                                ColumnFilter.eq("name", "jones"), ColumnFilter.isNull("name"))));
+        assertEquals(
+                List.of(0L, 1L, 2L, 3L, 5L), ids(ColumnFilter.not(ColumnFilter.isNull("name"))));
+    }
+
+    @Test
+    void sortsByPackedKeysKeepingTiesInRowOrder() {
+        assertEquals(
+                List.of(4L, 5L, 2L, 0L, 3L, 1L),
+                ids(null, new QuerySortOrder("name", SortDirection.ASCENDING)));
+        assertEquals(
+                List.of(1L, 0L, 3L, 2L, 5L, 4L),
+                ids(null, new QuerySortOrder("name", SortDirection.DESCENDING)));
+        assertEquals(
+                List.of(5L, 4L, 3L, 2L, 1L, 0L),
+                ids(null, new QuerySortOrder("id", SortDirection.DESCENDING)));
+    }
+
+    @Test
+    void sortsNullsFirstAndMatchesThemOnlyExplicitly() {
+        assertEquals(
+                List.of(1L, 5L, 2L, 0L, 4L, 3L),
+                ids(null, new QuerySortOrder("age", SortDirection.ASCENDING)));
+        assertEquals(
+                List.of(3L, 4L, 0L, 2L, 5L, 1L),
+                ids(null, new QuerySortOrder("age", SortDirection.DESCENDING)));
+        assertEquals(List.of(1L), ids(ColumnFilter.eq("age", null)));
+        assertEquals(List.of(2L, 5L), ids(ColumnFilter.between("age", null, 25)));
+        assertEquals(List.of(0L, 3L), ids(ColumnFilter.contains("name", "th")));
+    }
+
+    @Test
+    void settingTheFilterRefreshes() {
+        AtomicInteger refreshes = new AtomicInteger();
+        provider.addDataProviderListener(event -> refreshes.incrementAndGet());
+
+        provider.setFilter(ColumnFilter.eq("name", "Smith"));
+
+        assertEquals(1, refreshes.get());
+        assertEquals(2, provider.size(new Query<>()));
+        assertEquals(
+                List.of(3L, 0L), ids(null, new QuerySortOrder("age", SortDirection.DESCENDING)));
+    }
+
+    private record Item(long id, String name, Integer age) {}
+}
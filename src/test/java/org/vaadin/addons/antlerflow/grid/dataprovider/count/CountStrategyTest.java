@@ -0,0 +1,117 @@
+package org.vaadin.addons.antlerflow.grid.dataprovider.count;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+class CountStrategyTest {
+
+    /** A page of {@code limit} rows at {@code offset} over {@code total} rows, recording calls. */
+    private static final class Context implements CountContext<String> {
+        private final long total;
+        private final long offset;
+        private final int limit;
+        private final List<String> calls = new ArrayList<>();
+
+        Context(long total, long offset, int limit) {
+            this.total = total;
+            this.offset = offset;
+            this.limit = limit;
+        }
+
+        @Override
+        public Optional<String> getFilter() {
+            return Optional.of("active");
+        }
+
+        @Override
+        public long getOffset() {
+            return offset;
+        }
+
+        @Override
+        public int getLimit() {
+            return limit;
+        }
+
+        @Override
+        public long exactCount() {
+            calls.add("exactCount");
+            return total;
+        }
+
+        @Override
+        public boolean hasRowAt(long offset) {
+            calls.add("hasRowAt " + offset);
+            return offset < total;
+        }
+
+        @Override
+        public int getPageRowCount() {
+            return (int) Math.max(0, Math.min(limit, total - offset));
+        }
+
+        @Override
+        public boolean hasNextPage() {
+            calls.add("hasNextPage");
+            return offset + limit < total;
+        }
+    }
+
+    @Test
+    void exactCountsEverything() {
+        Context context = new Context(12_345, 0, 50);
+
+        assertEquals(ItemCount.exact(12_345), CountStrategy.<String>exact().count(context));
+        assertEquals(List.of("exactCount"), context.calls);
+    }
+
+    @Test
+    void cappedProbesBeforeCounting() {
+        CountStrategy<String> capped = CountStrategy.capped(10_000);
+
+        Context small = new Context(9_999, 0, 50);
+        assertEquals(ItemCount.exact(9_999), capped.count(small));
+        assertEquals(List.of("hasRowAt 10000", "exactCount"), small.calls);
+
+        Context large = new Context(10_001, 0, 50);
+        assertEquals(ItemCount.atLeast(10_000), capped.count(large));
+        assertEquals(List.of("hasRowAt 10000"), large.calls);
+
+        assertThrows(IllegalArgumentException.class, () -> CountStrategy.capped(0));
+    }
+
+    @Test
+    void estimatedAsksTheEstimatorOnly() {
+        Context context = new Context(1_000_000, 0, 50);
+        CountStrategy<String> estimated =
+                CountStrategy.estimated(filter -> filter.orElseThrow().length() * 1000L);
+
+        assertEquals(ItemCount.estimated(6_000), estimated.count(context));
+        assertEquals(List.of(), context.calls);
+    }
+
+    @Test
+    void hasNextOnlyReportsRowsSeen() {
+        CountStrategy<String> hasNextOnly = CountStrategy.hasNextOnly();
+
+        Context middle = new Context(1_000, 100, 50);
+        assertEquals(ItemCount.unknown(150, true), hasNextOnly.count(middle));
+        assertEquals(List.of("hasNextPage"), middle.calls);
+
+        Context last = new Context(1_020, 1_000, 50);
+        assertEquals(ItemCount.unknown(1_020, false), hasNextOnly.count(last));
+    }
+
+    @Test
+    void itemCountClampsToValidSizes() {
+        assertEquals(0, ItemCount.exact(-5).value());
+        assertEquals(Integer.MAX_VALUE, ItemCount.atLeast(5_000_000_000L).toSize());
+        assertEquals(42, ItemCount.estimated(42).toSize());
+    }
+}
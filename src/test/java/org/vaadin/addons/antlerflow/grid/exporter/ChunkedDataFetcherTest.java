@@ -0,0 +1,186 @@
+package org.vaadin.addons.antlerflow.grid.exporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.function.SerializablePredicate;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.vaadin.addons.antlerflow.grid.dataprovider.PrefetchPolicy;
+import org.vaadin.addons.antlerflow.grid.dataprovider.SpringPageableDataProvider;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class ChunkedDataFetcherTest {
+
+    private static final List<Integer> ROWS = IntStream.range(0, 1030).boxed().toList();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Serves pages the way a Spring Data repository does: page number times page size. */
+    private static Page<Integer> page(Optional<Void> filter, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), ROWS.size());
+        int to = Math.min(from + pageable.getPageSize(), ROWS.size());
+        return new PageImpl<>(ROWS.subList(from, to), pageable, ROWS.size());
+    }
+
+    private static List<Integer> fetchAll(ChunkedDataFetcher<Integer> fetcher) {
+        try (Stream<Integer> rows = fetcher.stream()) {
+            return rows.toList();
+        }
+    }
+
+    private static Query<Integer, Object> template() {
+        return new Query<>(0, Integer.MAX_VALUE, List.of(), null, null);
+    }
+
+    @Test
+    void readsShortLastChunkFromPageBasedProvider() {
+        SpringPageableDataProvider<Integer, Void> provider =
+                new SpringPageableDataProvider<>(ChunkedDataFetcherTest::page);
+
+        assertEquals(
+                ROWS, fetchAll(new ChunkedDataFetcher<>(provider, template(), 1000, 5000)));
+        // Limited to the counted total, as background exports do.
+        assertEquals(
+                ROWS, fetchAll(new ChunkedDataFetcher<>(provider, template(), 1000, 1030)));
+    }
+
+    @Test
+    void readsShortLastChunkInParallel() {
+        SpringPageableDataProvider<Integer, Void> provider =
+                new SpringPageableDataProvider<>(ChunkedDataFetcherTest::page);
+
+        assertEquals(
+                ROWS,
+                fetchAll(new ChunkedDataFetcher<>(provider, template(), 100, 5000, 3, executor)));
+    }
+
+    @Test
+    void stopsAtLimitNotAlignedToChunkSize() {
+        SpringPageableDataProvider<Integer, Void> provider =
+                new SpringPageableDataProvider<>(ChunkedDataFetcherTest::page);
+
+        assertEquals(
+                ROWS.subList(0, 1015),
+                fetchAll(new ChunkedDataFetcher<>(provider, template(), 1000, 1015)));
+        assertEquals(
+                ROWS.subList(0, 250),
+                fetchAll(new ChunkedDataFetcher<>(provider, template(), 100, 250, 4, executor)));
+    }
+
+    @Test
+    void leavesPageCacheAndPrefetchingAlone() {
+        SpringPageableDataProvider<Integer, Void> provider =
+                new SpringPageableDataProvider<>(ChunkedDataFetcherTest::page);
+        provider.setPrefetchPolicy(PrefetchPolicy.builder().executor(executor).build());
+
+        fetchAll(new ChunkedDataFetcher<>(provider, template(), 100, 5000, 3, executor));
+
+        assertEquals(0, provider.getCacheStats().size());
+        assertEquals(0, provider.getCacheStats().requests());
+    }
+
+    @Test
+    void readsSequentiallyOnceExecutorRejectsChunks() {
+        SpringPageableDataProvider<Integer, Void> provider =
+                new SpringPageableDataProvider<>(ChunkedDataFetcherTest::page);
+        AtomicInteger accepted = new AtomicInteger();
+        Executor saturating =
+                task -> {
+                    if (accepted.incrementAndGet() > 2) {
+                        throw new RejectedExecutionException("saturated");
+                    }
+                    executor.execute(task);
+                };
+
+        assertEquals(
+                ROWS,
+                fetchAll(new ChunkedDataFetcher<>(provider, template(), 100, 5000, 4, saturating)));
+        assertEquals(3, accepted.get());
+    }
+
+    @Test
+    void readsChunksUnderSessionLock() {
+        ReentrantLock lock = new ReentrantLock();
+        VaadinSession session =
+                new VaadinSession(null) {
+                    @Override
+                    public void accessSynchronously(Command command) {
+                        lock.lock();
+                        try {
+                            command.execute();
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                };
+        AtomicInteger unlockedCalls = new AtomicInteger();
+        ListDataProvider<Integer> provider =
+                new ListDataProvider<>(ROWS) {
+                    @Override
+                    public Stream<Integer> fetch(
+                            Query<Integer, SerializablePredicate<Integer>> query) {
+                        if (!lock.isHeldByCurrentThread()) {
+                            unlockedCalls.incrementAndGet();
+                        }
+                        return super.fetch(query);
+                    }
+
+                    @Override
+                    public int size(Query<Integer, SerializablePredicate<Integer>> query) {
+                        if (!lock.isHeldByCurrentThread()) {
+                            unlockedCalls.incrementAndGet();
+                        }
+                        return super.size(query);
+                    }
+                };
+        Executor unused =
+                task -> {
+                    throw new AssertionError("locked chunks are read on the consuming thread");
+                };
+        ChunkedDataFetcher<Integer> fetcher =
+                new ChunkedDataFetcher<>(provider, template(), 100, 5000, 4, unused)
+                        .withSessionLock(session);
+
+        assertEquals(1030, fetcher.size());
+        assertEquals(ROWS, fetchAll(fetcher));
+        assertEquals(0, unlockedCalls.get());
+    }
+
+    @Test
+    void countsUpToLimit() {
+        ListDataProvider<Integer> provider = DataProvider.ofCollection(ROWS);
+
+        assertEquals(1030, new ChunkedDataFetcher<>(provider, template(), 100, 5000).size());
+        assertEquals(10, new ChunkedDataFetcher<>(provider, template(), 100, 10).size());
+    }
+
+    @Test
+    void readsInMemoryProviderInChunks() {
+        ListDataProvider<Integer> provider = DataProvider.ofCollection(ROWS);
+
+        assertEquals(ROWS, fetchAll(new ChunkedDataFetcher<>(provider, template(), 64, 5000)));
+    }
+}
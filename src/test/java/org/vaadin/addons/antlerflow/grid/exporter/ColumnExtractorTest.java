@@ -0,0 +1,83 @@
+package org.vaadin.addons.antlerflow.grid.exporter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+class ColumnExtractorTest {
+
+    private static final Row ROW =
+            new Row("Ada", 36, new BigDecimal("1E+3"), Level.HIGH, LocalDate.of(1815, 12, 10));
+
+    private static List<ExportColumn<Row>> columns() {
+        return List.of(
+                new ExportColumn<>("Name", Row::name),
+                new ExportColumn<>("Age", Row::age),
+                new ExportColumn<>("Balance", Row::balance),
+                new ExportColumn<>("Level", Row::level),
+                new ExportColumn<>("Born", Row::born));
+    }
+
+    @Test
+    void extractsRawAndFormattedValues() {
+        ColumnExtractor<Row> extractor = new ColumnExtractor<>(columns());
+
+        assertEquals(5, extractor.getColumnCount());
+        assertArrayEquals(
+                new Object[] {"Ada", 36, new BigDecimal("1E+3"), Level.HIGH, ROW.born()},
+                extractor.extract(ROW));
+        assertArrayEquals(
+                new String[] {"Ada", "36", "1000", "HIGH", "1815-12-10"},
+                extractor.extractText(ROW));
+        assertArrayEquals(
+                new String[] {null, null, null, null, null},
+                extractor.extractText(new Row(null, null, null, null, null)));
+    }
+
+    @Test
+    void resolvesFormattersOncePerColumnAndType() {
+        List<Class<?>> resolved = new ArrayList<>();
+        ColumnExtractor<Object> extractor =
+                new ColumnExtractor<>(
+                        List.of(new ExportColumn<>("Value", value -> value)),
+                        type -> {
+                            resolved.add(type);
+                            return ValueFormatter.forType(type);
+                        });
+
+        extractor.extractText(1);
+        extractor.extractText(2);
+        extractor.extractText("three");
+
+        assertEquals(List.of(Integer.class, String.class), resolved);
+        assertArrayEquals(new String[] {"three"}, extractor.extractText("three"));
+    }
+
+    @Test
+    void reusesTheRowBufferPerThread() throws Exception {
+        ColumnExtractor<Row> extractor = new ColumnExtractor<>(columns());
+
+        String[] first = extractor.extractText(ROW);
+        String[] second = extractor.extractText(ROW);
+        String[] other = CompletableFuture.supplyAsync(() -> extractor.extractText(ROW)).get();
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+    }
+
+    private enum Level {
+        LOW,
+        HIGH
+    }
+
+    private record Row(String name, Integer age, BigDecimal balance, Level level, LocalDate born) {}
+}
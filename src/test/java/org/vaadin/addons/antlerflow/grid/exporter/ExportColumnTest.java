@@ -0,0 +1,80 @@
+package org.vaadin.addons.antlerflow.grid.exporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.data.renderer.LitRenderer;
+import org.junit.jupiter.api.Test;
+import org.vaadin.addons.antlerflow.grid.model.Person;
+
+import java.util.List;
+import java.util.Map;
+
+class ExportColumnTest {
+
+    private static final Person PERSON = new Person(7L, "Ada", "Lovelace", 36);
+
+    @Test
+    void readsBeanPropertiesByColumnKey() {
+        Grid<Person> grid = new Grid<>(Person.class, false);
+        grid.addColumn("lastName").setHeader("Last Name");
+        grid.addColumn("age");
+
+        List<ExportColumn<Person>> columns = ExportColumn.fromGrid(grid, column -> true);
+
+        assertEquals(List.of("Last Name", "Age"), headersOf(columns));
+        assertEquals(List.of("Lovelace", 36), valuesOf(columns));
+    }
+
+    @Test
+    void prefersRegisteredValueProviders() {
+        Grid<Person> grid = new Grid<>(Person.class, false);
+        grid.addColumn("lastName");
+        grid.addColumn(Person::getFirstName).setKey("name");
+
+        List<ExportColumn<Person>> columns =
+                ExportColumn.fromGrid(
+                        grid,
+                        column -> true,
+                        Map.of(
+                                "lastName", person -> person.getLastName().toUpperCase(),
+                                "name", Person::getFirstName));
+
+        assertEquals(List.of("LOVELACE", "Ada"), valuesOf(columns));
+    }
+
+    @Test
+    void readsSinglePropertyLitRenderers() {
+        Grid<Person> grid = new Grid<>();
+        grid.addColumn(
+                        LitRenderer.<Person>of("<b>${item.name}</b>")
+                                .withProperty("name", Person::getFirstName))
+                .setHeader("Name");
+
+        assertEquals(List.of("Ada"), valuesOf(ExportColumn.fromGrid(grid, column -> true)));
+    }
+
+    @Test
+    void leavesOutUnresolvableColumns() {
+        Grid<Person> grid = new Grid<>();
+        grid.addColumn(Person::getFirstName).setHeader("First Name");
+        grid.addComponentColumn(person -> new Span(person.getLastName())).setHeader("Last Name");
+        grid.addColumn(Person::getAge).setKey("age").setHeader("Age");
+
+        List<ExportColumn<Person>> columns =
+                ExportColumn.fromGrid(grid, column -> true, Map.of("age", Person::getAge));
+
+        assertEquals(List.of("Age"), headersOf(columns));
+    }
+
+    private static List<String> headersOf(List<ExportColumn<Person>> columns) {
+        return columns.stream().map(ExportColumn::header).toList();
+    }
+
+    private static List<Object> valuesOf(List<ExportColumn<Person>> columns) {
+        return columns.stream()
+                .<Object>map(column -> column.valueProvider().apply(PERSON))
+                .toList();
+    }
+}
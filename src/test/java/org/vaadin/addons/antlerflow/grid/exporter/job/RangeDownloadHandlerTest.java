@@ -0,0 +1,74 @@
+package org.vaadin.addons.antlerflow.grid.exporter.job;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.vaadin.flow.server.VaadinRequest;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+class RangeDownloadHandlerTest {
+
+    private static final String ETAG = "\"64-1\"";
+    private static final long SIZE = 100;
+    private static final long[] WHOLE = {0, 99};
+
+    /** A request answering only header lookups, which is all the range resolution reads. */
+    private static VaadinRequest request(Map<String, String> headers) {
+        return (VaadinRequest)
+                Proxy.newProxyInstance(
+                        VaadinRequest.class.getClassLoader(),
+                        new Class<?>[] {VaadinRequest.class},
+                        (proxy, method, args) -> {
+                            if (method.getName().equals("getHeader")) {
+                                return headers.get((String) args[0]);
+                            }
+                            throw new UnsupportedOperationException(method.getName());
+                        });
+    }
+
+    private static long[] resolve(String range) {
+        return RangeDownloadHandler.resolveRange(request(Map.of("Range", range)), ETAG, SIZE);
+    }
+
+    @Test
+    void servesTheWholeFileWithoutUsableRange() {
+        assertArrayEquals(WHOLE, RangeDownloadHandler.resolveRange(request(Map.of()), ETAG, SIZE));
+        assertArrayEquals(WHOLE, resolve("items=0-10"));
+        assertArrayEquals(WHOLE, resolve("bytes=0-10,20-30"));
+        assertArrayEquals(WHOLE, resolve("bytes=abc-"));
+        assertArrayEquals(WHOLE, resolve("bytes=10"));
+    }
+
+    @Test
+    void resolvesSingleRanges() {
+        assertArrayEquals(new long[] {10, 19}, resolve("bytes=10-19"));
+        assertArrayEquals(new long[] {90, 99}, resolve("bytes=90-"));
+        assertArrayEquals(new long[] {90, 99}, resolve("bytes=90-500"));
+        assertArrayEquals(new long[] {80, 99}, resolve("bytes=-20"));
+        assertArrayEquals(WHOLE, resolve("bytes=-500"));
+    }
+
+    @Test
+    void rejectsUnsatisfiableRanges() {
+        assertNull(resolve("bytes=100-"));
+        assertNull(resolve("bytes=20-10"));
+        assertNull(resolve("bytes=-0"));
+    }
+
+    @Test
+    void resumesOnlyTheSameFile() {
+        assertArrayEquals(
+                new long[] {50, 99},
+                RangeDownloadHandler.resolveRange(
+                        request(Map.of("Range", "bytes=50-", "If-Range", ETAG)), ETAG, SIZE));
+        assertArrayEquals(
+                WHOLE,
+                RangeDownloadHandler.resolveRange(
+                        request(Map.of("Range", "bytes=50-", "If-Range", "\"other\"")),
+                        ETAG,
+                        SIZE));
+    }
+}
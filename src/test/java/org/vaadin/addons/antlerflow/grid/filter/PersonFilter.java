@@ -1,23 +1,78 @@
 package org.vaadin.addons.antlerflow.grid.filter;
 
-import com.vaadin.flow.function.SerializablePredicate;
 import com.vaadin.frontendtools.internal.commons.lang3.Strings;
 import lombok.Data;
+import org.vaadin.addons.antlerflow.grid.dataprovider.RefinablePredicate;
+import org.vaadin.addons.antlerflow.grid.dataprovider.cache.CacheKeySupplier;
 import org.vaadin.addons.antlerflow.grid.model.Person;
 
+import java.util.Arrays;
+
 @Data
-public class PersonFilter {
+public class PersonFilter implements CacheKeySupplier {
     private String name;
     private Integer ageGreaterEqual;
     private Integer ageLessEqual;
 
-    public SerializablePredicate<Person> getPredicate() {
-        return  person -> {
-            boolean nameMatched = name == null || name.isBlank() || Strings.CI.contains(person.getFirstName(), name)
-                    || Strings.CI.contains(person.getLastName(), name);
-            boolean ageGreaterEqualMatched = ageGreaterEqual == null || person.getAge() >= ageGreaterEqual;
-            boolean ageLessEqualMatched = ageLessEqual == null || person.getAge() <= ageLessEqual;
-            return nameMatched && ageGreaterEqualMatched & ageLessEqualMatched;
+    public RefinablePredicate<Person> getPredicate() {
+        return new RefinablePredicate<>() {
+            @Override
+            public boolean test(Person person) {
+                return Criteria.matches(person, name, ageGreaterEqual, ageLessEqual);
+            }
+
+            @Override
+            public RefinablePredicate<Person> snapshot() {
+                return new Criteria(name, ageGreaterEqual, ageLessEqual);
+            }
+
+            @Override
+            public boolean refines(RefinablePredicate<Person> previous) {
+                return snapshot().refines(previous);
+            }
         };
     }
+
+    @Override
+    public Object cacheKey() {
+        // Snapshot of the mutable state, so keys stay valid after the filter is changed.
+        return Arrays.asList(name, ageGreaterEqual, ageLessEqual);
+    }
+
+    /** Immutable state of the filter; a longer name or a tighter age range narrows it. */
+    record Criteria(String name, Integer ageGreaterEqual, Integer ageLessEqual)
+            implements RefinablePredicate<Person> {
+
+        @Override
+        public boolean test(Person person) {
+            return matches(person, name, ageGreaterEqual, ageLessEqual);
+        }
+
+        @Override
+        public boolean refines(RefinablePredicate<Person> previous) {
+            return previous instanceof Criteria other
+                    && (isBlank(other.name)
+                            || name != null && Strings.CI.contains(name, other.name))
+                    && (other.ageGreaterEqual == null
+                            || ageGreaterEqual != null && ageGreaterEqual >= other.ageGreaterEqual)
+                    && (other.ageLessEqual == null
+                            || ageLessEqual != null && ageLessEqual <= other.ageLessEqual);
+        }
+
+        static boolean matches(
+                Person person, String name, Integer ageGreaterEqual, Integer ageLessEqual) {
+            boolean nameMatched =
+                    isBlank(name)
+                            || Strings.CI.contains(person.getFirstName(), name)
+                            || Strings.CI.contains(person.getLastName(), name);
+            boolean ageGreaterEqualMatched =
+                    ageGreaterEqual == null || person.getAge() >= ageGreaterEqual;
+            boolean ageLessEqualMatched = ageLessEqual == null || person.getAge() <= ageLessEqual;
+            return nameMatched && ageGreaterEqualMatched && ageLessEqualMatched;
+        }
+
+        private static boolean isBlank(String value) {
+            return value == null || value.isBlank();
+        }
+    }
 }
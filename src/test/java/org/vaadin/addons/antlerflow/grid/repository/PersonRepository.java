@@ -2,6 +2,7 @@ package org.vaadin.addons.antlerflow.grid.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,10 +11,18 @@ import org.vaadin.addons.antlerflow.grid.filter.PersonFilter;
 
 public interface PersonRepository extends JpaRepository<PersonEntity, Long> {
 
-    @Query(
-            "SELECT p FROM PersonEntity p WHERE (:#{#filter.name} IS NULL OR p.firstName LIKE %:#{#filter.name}%"
+    String FILTER_CONDITION =
+            " WHERE (:#{#filter.name} IS NULL OR p.firstName LIKE %:#{#filter.name}%"
                     + " OR p.lastName LIKE %:#{#filter.name}%)"
                     + " AND (:#{#filter.ageGreaterEqual} IS NULL OR p.age >= :#{#filter.ageGreaterEqual})"
-                    + " AND (:#{#filter.ageLessEqual} IS NULL OR p.age <= :#{#filter.ageLessEqual})")
+                    + " AND (:#{#filter.ageLessEqual} IS NULL OR p.age <= :#{#filter.ageLessEqual})";
+
+    @Query("SELECT p FROM PersonEntity p" + FILTER_CONDITION)
     Page<PersonEntity> findAll(@Param("filter") PersonFilter filter, Pageable pageable);
+
+    @Query("SELECT p FROM PersonEntity p" + FILTER_CONDITION)
+    Slice<PersonEntity> findSlice(@Param("filter") PersonFilter filter, Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM PersonEntity p" + FILTER_CONDITION)
+    long countMatching(@Param("filter") PersonFilter filter);
 }
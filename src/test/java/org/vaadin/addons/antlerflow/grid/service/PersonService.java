@@ -4,6 +4,7 @@ import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.vaadin.addons.antlerflow.grid.entity.PersonEntity;
 import org.vaadin.addons.antlerflow.grid.filter.PersonFilter;
@@ -40,14 +41,26 @@ public class PersonService {
         } else {
             entityPage = repository.findAll(pageable);
         }
-        return entityPage.map(
-                entity ->
-                        Person.builder()
-                                .id(entity.getId())
-                                .firstName(entity.getFirstName())
-                                .lastName(entity.getLastName())
-                                .age(entity.getAge())
-                                .build());
+        return entityPage.map(this::toPerson);
+    }
+
+    public Slice<Person> searchSlice(Optional<PersonFilter> filter, Pageable pageable) {
+        return repository
+                .findSlice(filter.orElseGet(PersonFilter::new), pageable)
+                .map(this::toPerson);
+    }
+
+    public long count(Optional<PersonFilter> filter) {
+        return repository.countMatching(filter.orElseGet(PersonFilter::new));
+    }
+
+    private Person toPerson(PersonEntity entity) {
+        return Person.builder()
+                .id(entity.getId())
+                .firstName(entity.getFirstName())
+                .lastName(entity.getLastName())
+                .age(entity.getAge())
+                .build();
     }
 
     public List<Person> generatePeople(int count) {
@@ -33,31 +33,21 @@ public class BasicUsageView extends VerticalLayout {
         grid.setDataProvider(dataProvider);
 
         TextField nameFilterField = new TextField("Filter by Name");
-        nameFilterField.addValueChangeListener(
-                e -> {
-                    personFilter.setName(e.getValue());
-                    dataProvider.refreshAll();
-                });
         NumberField ageGreaterEqualFilterField = new NumberField("Filter by Age greater equal");
-        ageGreaterEqualFilterField.addValueChangeListener(
-                e -> {
-                    personFilter.setAgeGreaterEqual(
-                            e.getValue() == null ? null : e.getValue().intValue());
-                    dataProvider.refreshAll();
-                });
         NumberField agelessEqualFilterField = new NumberField("Filter by Age less equal");
-        agelessEqualFilterField.addValueChangeListener(
-                e -> {
-                    personFilter.setAgeLessEqual(
-                            e.getValue() == null ? null : e.getValue().intValue());
-                    dataProvider.refreshAll();
-                });
 
         AdvancedGrid<Person> advancedGrid = new AdvancedGrid<>(grid);
         advancedGrid.enableExport(true);
 
         advancedGrid.addToFilters(
                 nameFilterField, agelessEqualFilterField, ageGreaterEqualFilterField);
+        advancedGrid.bindFilter(nameFilterField, personFilter::setName);
+        advancedGrid.bindFilter(
+                ageGreaterEqualFilterField,
+                value -> personFilter.setAgeGreaterEqual(value == null ? null : value.intValue()));
+        advancedGrid.bindFilter(
+                agelessEqualFilterField,
+                value -> personFilter.setAgeLessEqual(value == null ? null : value.intValue()));
         advancedGrid.addToActions(
                 new Button("New Item", VaadinIcon.PLUS.create()),
                 new Button("Refresh", VaadinIcon.REFRESH.create()));
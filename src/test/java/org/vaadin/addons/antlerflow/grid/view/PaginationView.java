@@ -5,11 +5,11 @@ import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.NumberField;
 import com.vaadin.flow.component.textfield.TextField;
-import com.vaadin.flow.data.provider.ListDataProvider;
 import com.vaadin.flow.router.Menu;
 import com.vaadin.flow.router.PreserveOnRefresh;
 import com.vaadin.flow.router.Route;
 import org.vaadin.addons.antlerflow.grid.AdvancedGrid;
+import org.vaadin.addons.antlerflow.grid.dataprovider.IndexedListDataProvider;
 import org.vaadin.addons.antlerflow.grid.exporter.ExportSize;
 import org.vaadin.addons.antlerflow.grid.exporter.GridExportConfig;
 import org.vaadin.addons.antlerflow.grid.exporter.PredefinedTitleProvider;
@@ -57,34 +57,24 @@ public class PaginationView extends VerticalLayout {
         advancedGrid.getInnerGrid().setAllRowsVisible(true);
 
         PersonFilter personFilter = new PersonFilter();
-        ListDataProvider<Person> dataProvider =
-                new ListDataProvider<>(personService.generatePeople(500));
+        IndexedListDataProvider<Person> dataProvider =
+                new IndexedListDataProvider<>(personService.generatePeople(500));
         dataProvider.setFilter(personFilter.getPredicate());
 
         advancedGrid.setDataProvider(dataProvider);
 
         TextField nameFilterField = new TextField("Filter by Name");
-        nameFilterField.addValueChangeListener(
-                e -> {
-                    personFilter.setName(e.getValue());
-                    dataProvider.refreshAll();
-                });
         NumberField ageGreaterEqualFilterField = new NumberField("Filter by Age greater equal");
-        ageGreaterEqualFilterField.addValueChangeListener(
-                e -> {
-                    personFilter.setAgeGreaterEqual(
-                            e.getValue() == null ? null : e.getValue().intValue());
-                    dataProvider.refreshAll();
-                });
         NumberField agelessEqualFilterField = new NumberField("Filter by Age less equal");
-        agelessEqualFilterField.addValueChangeListener(
-                e -> {
-                    personFilter.setAgeLessEqual(
-                            e.getValue() == null ? null : e.getValue().intValue());
-                    dataProvider.refreshAll();
-                });
         advancedGrid.addToFilters(
                 nameFilterField, agelessEqualFilterField, ageGreaterEqualFilterField);
+        advancedGrid.bindFilter(nameFilterField, personFilter::setName);
+        advancedGrid.bindFilter(
+                ageGreaterEqualFilterField,
+                value -> personFilter.setAgeGreaterEqual(value == null ? null : value.intValue()));
+        advancedGrid.bindFilter(
+                agelessEqualFilterField,
+                value -> personFilter.setAgeLessEqual(value == null ? null : value.intValue()));
         advancedGrid.addToActions(
                 new Button("New Item", VaadinIcon.PLUS.create()),
                 new Button("Refresh", VaadinIcon.REFRESH.create()));
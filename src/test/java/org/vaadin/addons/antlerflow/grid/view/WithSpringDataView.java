@@ -8,7 +8,11 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.Menu;
 import com.vaadin.flow.router.Route;
 import org.vaadin.addons.antlerflow.grid.AdvancedGrid;
+import org.vaadin.addons.antlerflow.grid.dataprovider.PrefetchPolicy;
 import org.vaadin.addons.antlerflow.grid.dataprovider.SpringPageableDataProvider;
+import org.vaadin.addons.antlerflow.grid.exporter.ExportSize;
+import org.vaadin.addons.antlerflow.grid.exporter.GridExportConfig;
+import org.vaadin.addons.antlerflow.grid.exporter.job.BackgroundGridExportHandler;
 import org.vaadin.addons.antlerflow.grid.filter.PersonFilter;
 import org.vaadin.addons.antlerflow.grid.layout.MainLayout;
 import org.vaadin.addons.antlerflow.grid.model.Person;
@@ -24,6 +28,7 @@ public class WithSpringDataView extends VerticalLayout {
         advancedGrid
                 .getInnerGrid()
                 .addColumn(Person::getId)
+                .setKey("id")
                 .setHeader("ID")
                 .setSortable(true)
                 .setResizable(true)
@@ -31,6 +36,7 @@ public class WithSpringDataView extends VerticalLayout {
         advancedGrid
                 .getInnerGrid()
                 .addColumn(Person::getFirstName)
+                .setKey("firstName")
                 .setHeader("First Name")
                 .setSortable(true)
                 .setResizable(true)
@@ -38,6 +44,7 @@ public class WithSpringDataView extends VerticalLayout {
         advancedGrid
                 .getInnerGrid()
                 .addColumn(Person::getLastName)
+                .setKey("lastName")
                 .setHeader("Last Name")
                 .setSortable(true)
                 .setResizable(true)
@@ -45,6 +52,7 @@ public class WithSpringDataView extends VerticalLayout {
         advancedGrid
                 .getInnerGrid()
                 .addColumn(Person::getAge)
+                .setKey("age")
                 .setHeader("Age")
                 .setSortable(true)
                 .setResizable(true)
@@ -52,37 +60,38 @@ public class WithSpringDataView extends VerticalLayout {
 
         PersonFilter personFilter = new PersonFilter();
         SpringPageableDataProvider<Person, PersonFilter> dataProvider =
-                new SpringPageableDataProvider<>(personService::search);
+                new SpringPageableDataProvider<>(personService::searchSlice, personService::count);
         dataProvider.setFilter(personFilter);
+        dataProvider.setPrefetchPolicy(PrefetchPolicy.neighbours(1));
         advancedGrid.setDataProvider(dataProvider);
 
         TextField nameFilterField = new TextField("Filter by Name");
-        nameFilterField.addValueChangeListener(
-                e -> {
-                    personFilter.setName(e.getValue());
-                    dataProvider.refreshAll();
-                });
         NumberField ageGreaterEqualFilterField = new NumberField("Filter by Age greater equal");
-        ageGreaterEqualFilterField.addValueChangeListener(
-                e -> {
-                    personFilter.setAgeGreaterEqual(
-                            e.getValue() == null ? null : e.getValue().intValue());
-                    dataProvider.refreshAll();
-                });
         NumberField agelessEqualFilterField = new NumberField("Filter by Age less equal");
-        agelessEqualFilterField.addValueChangeListener(
-                e -> {
-                    personFilter.setAgeLessEqual(
-                            e.getValue() == null ? null : e.getValue().intValue());
-                    dataProvider.refreshAll();
-                });
         advancedGrid.addToFilters(
                 nameFilterField, agelessEqualFilterField, ageGreaterEqualFilterField);
+        advancedGrid.bindFilter(nameFilterField, personFilter::setName);
+        advancedGrid.bindFilter(
+                ageGreaterEqualFilterField,
+                value -> personFilter.setAgeGreaterEqual(value == null ? null : value.intValue()));
+        advancedGrid.bindFilter(
+                agelessEqualFilterField,
+                value -> personFilter.setAgeLessEqual(value == null ? null : value.intValue()));
         advancedGrid.addToActions(
                 new Button("New Item", VaadinIcon.PLUS.create()),
                 new Button("Refresh", VaadinIcon.REFRESH.create()));
 
         advancedGrid.setPaginationVisibility(true);
+        advancedGrid.setExportHandler(new BackgroundGridExportHandler<>());
+        advancedGrid.setExportConfig(
+                GridExportConfig.<Person>builder()
+                        .fileName("people")
+                        .size(ExportSize.ALL)
+                        .valueProvider("id", Person::getId)
+                        .valueProvider("firstName", Person::getFirstName)
+                        .valueProvider("lastName", Person::getLastName)
+                        .valueProvider("age", Person::getAge)
+                        .build());
         advancedGrid.enableExport(true);
         add(advancedGrid);
     }